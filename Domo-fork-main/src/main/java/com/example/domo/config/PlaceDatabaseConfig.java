@@ -0,0 +1,73 @@
+package com.example.domo.config;
+
+import com.example.domo.service.ShardedSupabaseService;
+import com.example.domo.service.SupabaseService;
+import com.example.domo.service.SupabaseServiceImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * "placeDatabase" = 캐시/메모리 저장소 뒤에서 실제 places 를 읽는 구현.
+ * 샤드 설정이 없으면 기본 DataSource 의 SupabaseServiceImpl, 있으면 시도별 ShardedSupabaseService.
+ * (CachingSupabaseService 와 PlaceStore 는 이 이름으로 주입받는다)
+ */
+@Configuration
+@EnableConfigurationProperties(PlaceShardProperties.class)
+public class PlaceDatabaseConfig {
+
+    @Bean
+    public SupabaseService placeDatabase(@Qualifier("supabaseServiceImpl") SupabaseService single,
+                                         PlaceShardProperties props,
+                                         DataSourceProperties dsProps) {
+        if (props.getShards().isEmpty()) return single;
+
+        List<ShardedSupabaseService.Shard> shards = new ArrayList<>();
+        for (PlaceShardProperties.Shard s : props.getShards()) {
+            HikariDataSource ds = new HikariDataSource();
+            ds.setPoolName("shard-" + s.getName());
+            ds.setJdbcUrl(s.getUrl());
+            ds.setUsername(isBlank(s.getUsername()) ? dsProps.determineUsername() : s.getUsername());
+            ds.setPassword(isBlank(s.getPassword()) ? dsProps.determinePassword() : s.getPassword());
+            ds.setDriverClassName(dsProps.determineDriverClassName());
+            ds.setMaximumPoolSize(s.getMaximumPoolSize());
+
+            JdbcTemplate jdbc = new JdbcTemplate(ds);
+            DataSourceTransactionManager txManager = new DataSourceTransactionManager(ds);
+            TransactionTemplate readOnlyTx = new TransactionTemplate(txManager);
+            readOnlyTx.setReadOnly(true);
+            shards.add(new ShardedSupabaseService.Shard(s.getName(), new HashSet<>(s.getSidos()),
+                    transactional(new SupabaseServiceImpl(jdbc), txManager), jdbc, readOnlyTx, ds));
+        }
+        return new ShardedSupabaseService(shards, props.getTimeoutMs());
+    }
+
+    /**
+     * 샤드 구현은 빈이 아니라서 @Transactional(readOnly = true) 가 그냥은 적용되지 않는다.
+     * 그 샤드의 트랜잭션 매니저로 같은 어노테이션을 읽는 프록시를 씌운다.
+     */
+    private static SupabaseService transactional(SupabaseServiceImpl target, PlatformTransactionManager txManager) {
+        ProxyFactory pf = new ProxyFactory(target);
+        pf.addAdvice(new TransactionInterceptor((TransactionManager) txManager, new AnnotationTransactionAttributeSource()));
+        return (SupabaseService) pf.getProxy();
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.domo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 시도 단위 places 샤드 설정. shards 가 비어 있으면 샤딩 없이 기본 DataSource 하나만 쓴다.
+ *
+ * <pre>
+ * domo.sharding.shards[0].name=capital
+ * domo.sharding.shards[0].url=jdbc:postgresql://...
+ * domo.sharding.shards[0].sidos=서울,경기,인천
+ * domo.sharding.shards[1].name=rest          # sidos 가 비어 있으면 나머지 시도 전부(기본 샤드)
+ * domo.sharding.shards[1].url=jdbc:postgresql://...
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "domo.sharding")
+public class PlaceShardProperties {
+
+    private List<Shard> shards = new ArrayList<>();
+
+    /** 여러 샤드에 동시에 보낸 조회를 기다리는 최대 시간 */
+    private long timeoutMs = 5000;
+
+    @Data
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;   // 비어 있으면 spring.datasource.username
+        private String password;   // 비어 있으면 spring.datasource.password
+        private List<String> sidos = new ArrayList<>();
+        private int maximumPoolSize = 5;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.domo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * domo.datasource.replica.url 이 있을 때만 켜진다. 없으면 스프링 부트 기본 DataSource(primary 하나)를 그대로 쓴다.
+ *
+ * primary 풀은 기존 spring.datasource.* / spring.datasource.hikari.* 설정을 그대로 따르고,
+ * replica 풀은 계정이 비어 있으면 primary 계정을 쓴다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "domo.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryPool(DataSourceProperties props) {
+        HikariDataSource ds = props.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    @Bean
+    public HikariDataSource replicaPool(DataSourceProperties props,
+                                        @Value("${domo.datasource.replica.url}") String url,
+                                        @Value("${domo.datasource.replica.username:}") String username,
+                                        @Value("${domo.datasource.replica.password:}") String password,
+                                        @Value("${domo.datasource.replica.maximum-pool-size:10}") int maxPoolSize) {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setPoolName("replica");
+        ds.setJdbcUrl(url);
+        ds.setUsername(username.isBlank() ? props.determineUsername() : username);
+        ds.setPassword(password.isBlank() ? props.determinePassword() : password);
+        ds.setDriverClassName(props.determineDriverClassName());
+        ds.setMaximumPoolSize(maxPoolSize);
+        ds.setReadOnly(true);
+        return ds;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryPool") HikariDataSource primaryPool,
+            @Qualifier("replicaPool") HikariDataSource replicaPool,
+            @Value("${domo.datasource.replica.max-lag-ms:5000}") long maxLagMs) {
+        return new ReplicaRoutingDataSource(primaryPool, replicaPool, maxLagMs);
+    }
+
+    /** JdbcTemplate / 트랜잭션 매니저가 쓰는 DataSource */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
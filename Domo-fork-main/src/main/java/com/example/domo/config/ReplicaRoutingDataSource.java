@@ -0,0 +1,137 @@
+package com.example.domo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 replica 풀로, 나머지는 primary 풀로 보낸다.
+ * 트랜잭션의 readOnly 표시는 연결을 실제로 얻는 시점에 정해지므로 LazyConnectionDataSourceProxy 로 감싸서 쓴다.
+ *
+ * replica 지연(lag)을 주기적으로 재서 maxLagMs 를 넘거나 확인에 실패하면 다시 따라잡을 때까지 읽기도 primary 로 보낸다.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    /**
+     * replica 가 받은 WAL 을 전부 재생했으면 0, 아니면 마지막 재생 트랜잭션 이후 경과 시간(ms).
+     * primary 에 쓰기가 없을 때 replay 시각만 보면 지연이 계속 늘어나 보이므로 LSN 비교를 먼저 한다.
+     */
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+                    "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+                    "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Supplier<Double> lagProbe;   // replica 지연(ms), 실패하면 예외
+    private final long maxLagMs;
+
+    private volatile boolean replicaUsable = true;
+    private volatile double lastLagMs = -1;
+
+    private final LongAdder routedPrimary = new LongAdder();
+    private final LongAdder routedReplica = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();   // 읽기였지만 replica 상태 때문에 primary 로 간 횟수
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long maxLagMs) {
+        this(primary, replica, maxLagMs, lagQuery(new JdbcTemplate(replica)));
+    }
+
+    /** 지연 측정을 바꿔 끼울 수 있는 생성자 (테스트에서 DB 없이 지연/장애를 흉내 낼 때) */
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, long maxLagMs, Supplier<Double> lagProbe) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagProbe = lagProbe;
+        this.maxLagMs = maxLagMs;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    private static Supplier<Double> lagQuery(JdbcTemplate replicaJdbc) {
+        return () -> replicaJdbc.queryForObject(LAG_SQL, Double.class);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            routedPrimary.increment();
+            return PRIMARY;
+        }
+        if (!replicaUsable) {
+            fallbacks.increment();
+            routedPrimary.increment();
+            return PRIMARY;
+        }
+        routedReplica.increment();
+        return REPLICA;
+    }
+
+    @Scheduled(fixedDelayString = "${domo.datasource.replica.check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        boolean usable;
+        try {
+            Double lag = lagProbe.get();
+            lastLagMs = (lag == null) ? 0 : lag;
+            usable = lastLagMs <= maxLagMs;
+        } catch (Exception e) {
+            lastLagMs = -1;
+            usable = false;
+            if (replicaUsable) log.warn("[replica] lag check failed: {}", e.getMessage());
+        }
+        if (usable != replicaUsable) {
+            log.info("[replica] {} (lag {} ms, max {} ms)",
+                    usable ? "읽기 다시 replica 로" : "지연/장애 → 읽기도 primary 로", (long) lastLagMs, maxLagMs);
+            replicaUsable = usable;
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public Map<String, Object> stats() {
+        var m = new LinkedHashMap<String, Object>();
+        m.put("replicaUsable", replicaUsable);
+        m.put("replicaLagMs", (long) lastLagMs);
+        m.put("maxLagMs", maxLagMs);
+        m.put("routedPrimary", routedPrimary.sum());
+        m.put("routedReplica", routedReplica.sum());
+        m.put("readFallbacks", fallbacks.sum());
+        m.put(PRIMARY, poolStats(primary));
+        m.put(REPLICA, poolStats(replica));
+        return m;
+    }
+
+    /** Hikari 풀 상태 (풀이 아직 안 열렸으면 빈 맵) */
+    public static Map<String, Object> poolStats(DataSource ds) {
+        var m = new LinkedHashMap<String, Object>();
+        if (!(ds instanceof HikariDataSource h)) return m;
+        m.put("pool", h.getPoolName());
+        m.put("maxSize", h.getMaximumPoolSize());
+        HikariPoolMXBean pool = h.getHikariPoolMXBean();
+        if (pool != null) {
+            m.put("active", pool.getActiveConnections());
+            m.put("idle", pool.getIdleConnections());
+            m.put("total", pool.getTotalConnections());
+            m.put("waiting", pool.getThreadsAwaitingConnection());
+        }
+        return m;
+    }
+}
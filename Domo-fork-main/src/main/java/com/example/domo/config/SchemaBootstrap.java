@@ -0,0 +1,116 @@
+package com.example.domo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * classpath:db/schema/V{n}__{설명}.sql 스크립트를 버전 순서대로 한 번씩 적용한다.
+ * 적용 이력은 domo_schema_version 테이블에 남긴다. (domo.schema.bootstrap.enabled=true 일 때만 동작)
+ *
+ * 스크립트는 autocommit 연결에서 문장 단위로 실행되므로 CREATE INDEX CONCURRENTLY 를 쓸 수 있고,
+ * 중간에 실패해도 다시 돌릴 수 있도록 IF NOT EXISTS 로 작성한다.
+ *
+ * 단, CONCURRENTLY 빌드가 실패하면 INVALID 인덱스가 남고 IF NOT EXISTS 는 그것을 있는 것으로 보고 건너뛴다.
+ * 그래서 스크립트가 만드는 인덱스 중 INVALID 인 것은 실행 전에 지우고, 실행 후에도 INVALID 면 버전을 기록하지 않고 멈춘다.
+ */
+@Component
+public class SchemaBootstrap implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaBootstrap.class);
+    private static final Pattern FILE = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final Pattern CONCURRENT_INDEX = Pattern.compile(
+            "CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+CONCURRENTLY\\s+IF\\s+NOT\\s+EXISTS\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private final JdbcTemplate jdbc;
+    private final boolean enabled;
+
+    public SchemaBootstrap(JdbcTemplate jdbc,
+                           @Value("${domo.schema.bootstrap.enabled:false}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        try {
+            migrate();
+        } catch (Exception e) {
+            log.error("[SchemaBootstrap] migration stopped: {}", e.getMessage());
+        }
+    }
+
+    public void migrate() throws Exception {
+        jdbc.execute("CREATE TABLE IF NOT EXISTS domo_schema_version (" +
+                "  version     INT PRIMARY KEY, " +
+                "  description TEXT NOT NULL, " +
+                "  applied_at  TIMESTAMPTZ NOT NULL DEFAULT now())");
+
+        Set<Integer> applied = new HashSet<>(jdbc.queryForList("SELECT version FROM domo_schema_version", Integer.class));
+
+        TreeMap<Integer, Resource> scripts = new TreeMap<>();
+        for (Resource r : new PathMatchingResourcePatternResolver().getResources("classpath:db/schema/V*__*.sql")) {
+            Matcher m = FILE.matcher(Objects.requireNonNull(r.getFilename()));
+            if (m.matches()) scripts.put(Integer.parseInt(m.group(1)), r);
+        }
+
+        for (var e : scripts.entrySet()) {
+            int version = e.getKey();
+            if (applied.contains(version)) continue;
+
+            Resource script = e.getValue();
+            Matcher m = FILE.matcher(Objects.requireNonNull(script.getFilename()));
+            String description = m.matches() ? m.group(2).replace('_', ' ') : script.getFilename();
+
+            List<String> indexes = concurrentIndexes(script);
+            for (String name : indexes) {
+                if (isInvalidIndex(name)) {
+                    log.warn("[SchemaBootstrap] V{}: dropping INVALID index {} left by an earlier failed build", version, name);
+                    jdbc.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+                }
+            }
+
+            long t0 = System.nanoTime();
+            jdbc.execute((java.sql.Connection con) -> {
+                con.setAutoCommit(true);
+                ScriptUtils.executeSqlScript(con, script);
+                return null;
+            });
+            for (String name : indexes) {
+                if (isInvalidIndex(name)) {
+                    throw new IllegalStateException("V" + version + ": index " + name + " is INVALID after build");
+                }
+            }
+            jdbc.update("INSERT INTO domo_schema_version(version, description) VALUES (?, ?)", version, description);
+            log.info("[SchemaBootstrap] applied V{} ({}) in {} ms", version, description, (System.nanoTime() - t0) / 1_000_000);
+        }
+    }
+
+    /** 스크립트가 CREATE INDEX CONCURRENTLY IF NOT EXISTS 로 만드는 인덱스 이름 */
+    private static List<String> concurrentIndexes(Resource script) throws java.io.IOException {
+        String sql = script.getContentAsString(java.nio.charset.StandardCharsets.UTF_8);
+        List<String> names = new ArrayList<>();
+        Matcher m = CONCURRENT_INDEX.matcher(sql);
+        while (m.find()) names.add(m.group(1));
+        return names;
+    }
+
+    /** 인덱스가 있는데 indisvalid = false (실패한 CONCURRENTLY 빌드의 흔적) */
+    private boolean isInvalidIndex(String name) {
+        List<Boolean> valid = jdbc.queryForList(
+                "SELECT i.indisvalid FROM pg_index i WHERE i.indexrelid = to_regclass(?)", Boolean.class, name);
+        return !valid.isEmpty() && !Boolean.TRUE.equals(valid.get(0));
+    }
+}
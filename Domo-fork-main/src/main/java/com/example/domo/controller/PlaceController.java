@@ -1,9 +1,20 @@
 package com.example.domo.controller;
 
+import com.example.domo.model.LeaderboardCursor;
 import com.example.domo.model.Place;
-import com.example.domo.service.PopularityService;
+import com.example.domo.model.PlaceColumns;
+import com.example.domo.model.PlaceCursor;
+import com.example.domo.model.ScoreColumns;
+import com.example.domo.service.PlaceAutocomplete;
+import com.example.domo.service.PlaceAutocompleteIndex;
+import com.example.domo.service.PlaceRegionIndex;
+import com.example.domo.service.PlaceRegions;
+import com.example.domo.service.PlaceSearch;
+import com.example.domo.service.PlaceSearchIndex;
+import com.example.domo.service.PopularitySnapshot;
 import com.example.domo.service.ScoreService;
 import com.example.domo.service.SupabaseService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.LinkedHashMap;
@@ -17,15 +28,24 @@ import java.util.*;
 public class PlaceController {
     private final SupabaseService supabaseService;
     private final ScoreService scoreService;
-    private final PopularityService popularityService;
+    private final PlaceRegions placeRegions;
+    private final PopularitySnapshot popularitySnapshot;
+    private final PlaceSearch placeSearch;
+    private final PlaceAutocomplete placeAutocomplete;
     private static final Logger log = LoggerFactory.getLogger(PlaceController.class);
 
     public PlaceController(SupabaseService supabaseService,
                            ScoreService scoreService,
-                           PopularityService popularityService) {
+                           PopularitySnapshot popularitySnapshot,
+                           PlaceRegions placeRegions,
+                           PlaceSearch placeSearch,
+                           PlaceAutocomplete placeAutocomplete) {
         this.supabaseService = supabaseService;
         this.scoreService = scoreService;
-        this.popularityService = popularityService;
+        this.popularitySnapshot = popularitySnapshot;
+        this.placeRegions = placeRegions;
+        this.placeSearch = placeSearch;
+        this.placeAutocomplete = placeAutocomplete;
     }
 
     @GetMapping("/api/place")
@@ -41,7 +61,7 @@ public class PlaceController {
         Place p = opt.get();
         boolean withMetrics = "metrics".equalsIgnoreCase(include);
         if (withMetrics) {
-            try { popularityService.computePopularity(List.of(p), PopularityService.Mode.GEO_DENSITY); } catch (Exception ignored) {}
+            try { popularitySnapshot.applyTo(p); } catch (Exception ignored) {}
             try { scoreService.applyScores(List.of(p), null, null); } catch (Exception ignored) {}
         }
         return ResponseEntity.ok(buildPlaceResponse(p, withMetrics));
@@ -56,11 +76,37 @@ public class PlaceController {
         return getPlace(code, null);
     }
 
+    // ✅ 여러 장소 한 번에: /api/places?codes=a,b,c (요청 순서 유지, 없는 코드는 missing 으로)
+    @GetMapping("/api/places")
+    public ResponseEntity<?> getPlaces(@RequestParam("codes") List<String> codes) {
+        final int maxCodes = 100;
+        if (codes.size() > maxCodes) {
+            return ResponseEntity.badRequest().body(Map.of("ok", false, "message", "too many codes (max " + maxCodes + ")"));
+        }
+        Map<String, Place> byId = supabaseService.fetchByPlaceIds(codes);
+
+        var items = new ArrayList<Map<String, Object>>(byId.size());
+        var missing = new ArrayList<String>();
+        var seen = new HashSet<String>();
+        for (String code : codes) {
+            if (!seen.add(code)) continue;
+            Place p = byId.get(code);
+            if (p == null) missing.add(code);
+            else items.add(toPlacePayload(p));
+        }
+
+        var data = new LinkedHashMap<String, Object>();
+        data.put("items", items);
+        data.put("missing", missing);
+        return ResponseEntity.ok(Map.of("data", data));
+    }
+
     @GetMapping("/api/benefits")
     public Map<String, Object> benefits(
             @RequestParam(required = false) String search,   // "시 군", 예: "서울 강남"
             @RequestParam(defaultValue = "benefit") String sort, // benefit | popular
-            @RequestParam(defaultValue = "1") int page
+            @RequestParam(required = false) String cursor,   // 이전 응답의 nextCursor
+            @RequestParam(defaultValue = "1") int page        // cursor 가 없을 때 (예전 클라이언트 호환)
     ) {
         // "서울 강남" -> sido, sigungu
         String[] tok = (search == null ? "" : search.trim()).split("\\s+");
@@ -68,64 +114,169 @@ public class PlaceController {
         String sigungu = tok.length > 1 && !tok[1].isBlank() ? tok[1] : null;
 
         final int pageSize = 20;
-        final int maxTotalPages = 5;                 // 요구사항 최대 5
-        final int poolLimit = pageSize * maxTotalPages; // ✅ DB 한 번만: 최대 100개만 미리 당겨옴
-
-        int p = Math.max(1, page);
+        boolean hasCursor = cursor != null && !cursor.isBlank();
 
-        // ✅ DB 호출 1회
-        List<Place> pool = supabaseService.fetchPlaces(sido, sigungu, poolLimit, 0);
+        // ✅ 지역 전체를 혜택순/인기순으로 미리 정렬해둔 리더보드에서 구간만 잘라낸다
+        PlaceRegionIndex regions = placeRegions.index();
+        if (regions == null) return keysetPage(sido, sigungu, sort, hasCursor ? cursor : null, page, pageSize);
 
-        // 점수 계산(예외는 로그만 남기고 계속)
-        try { popularityService.computePopularity(pool, PopularityService.Mode.GEO_DENSITY); }
-        catch (Exception e) { log.debug("[benefits] popularity compute skipped: {}", e.getMessage()); }
-        try { scoreService.applyScores(pool, null, null); }
-        catch (Exception e) { log.debug("[benefits] score compute skipped: {}", e.getMessage()); }
+        // 키셋 커서(리더보드가 생기기 전에 받은 토큰)는 순서 기준이 달라 이어 쓸 수 없다 → page 기준으로 다시 시작
+        LeaderboardCursor lbCursor = hasCursor ? LeaderboardCursor.tryDecode(cursor) : null;
+        int total = regions.count(sido, sigungu);
+        int totalPages = Math.max(1, (total + pageSize - 1) / pageSize);
+        int p = Math.max(1, Math.min(page, totalPages));
+        int offset = (p - 1) * pageSize;
+        if (lbCursor != null) {
+            offset = lbCursor.offset();
+            p = offset / pageSize + 1;
+        }
+        return leaderboardPage(regions, sido, sigungu, sort, offset, p, pageSize, totalPages);
+    }
 
-        // 정렬
-        var ko = java.text.Collator.getInstance(java.util.Locale.KOREAN);
+    /**
+     * 리더보드가 아직 없을 때(PlaceStore 꺼짐/로드 전): DB 키셋 페이지.
+     * (totalscore, discountpercent, place_id) 순서로 커서 다음 pageSize+1 행만 인덱스 탐색 한 번으로 읽는다(+1 은 다음 페이지 확인용).
+     * 지역 전체를 혜택순/인기순으로 세우는 건 리더보드 몫이라 여기서 sort 는 페이지 안 순서만 정한다.
+     */
+    private Map<String, Object> keysetPage(String sido, String sigungu, String sort, String cursor, int page, int pageSize) {
+        int total = supabaseService.countPlaces(sido, sigungu);
+        int totalPages = Math.max(1, (total + pageSize - 1) / pageSize);
 
-        if ("popular".equalsIgnoreCase(sort)) {
-            // 인기순 → popularity DESC, 동률 시 할인율 DESC, 이름 정렬
-            pool.sort(
-                    java.util.Comparator.comparingInt(Place::getPopularity).reversed()
-                            .thenComparing(java.util.Comparator.comparingInt((Place x) -> nz(x.getDiscountPercent())).reversed())
-                            .thenComparing(Place::getName, ko)
-            );
+        // 리더보드 커서(lb:)는 순위 기준이라 키셋으로 이어 쓸 수 없다 → page 기준으로 다시 시작
+        boolean keyset = cursor != null && LeaderboardCursor.tryDecode(cursor) == null;
+        int p;
+        List<Place> fetched;
+        if (keyset) {
+            fetched = supabaseService.fetchPlacesAfter(sido, sigungu, PlaceCursor.decode(cursor), pageSize + 1);
+            int carried = PlaceCursor.pageOf(cursor);
+            p = carried > 0 ? carried : Math.max(1, page);
         } else {
-            // 혜택순 → 할인율 DESC, 동률 시 인기순 DESC, 이름 정렬
-            pool.sort(
-                    java.util.Comparator.comparingInt((Place x) -> nz(x.getDiscountPercent())).reversed()
-                            .thenComparing(java.util.Comparator.comparingInt(Place::getPopularity).reversed())
-                            .thenComparing(Place::getName, ko)
-            );
+            // page 만 넘어오면(예전 클라이언트) 같은 순서의 OFFSET 조회 한 번 → 이후는 nextCursor 로 이어 읽는다
+            p = Math.max(1, Math.min(page, totalPages));
+            fetched = (p == 1)
+                    ? supabaseService.fetchPlacesAfter(sido, sigungu, null, pageSize + 1)
+                    : supabaseService.fetchPlaces(sido, sigungu, pageSize + 1, (p - 1) * pageSize);
         }
+        boolean hasNext = fetched.size() > pageSize;
+        if (hasNext) fetched = fetched.subList(0, pageSize);
+        // 커서는 점수 계산으로 totalScore 가 바뀌기 전 DB 값으로 만든다
+        String nextCursor = hasNext ? PlaceCursor.of(fetched.get(fetched.size() - 1)).encode(p + 1) : null;
 
-        // totalPages = 실제로 끌어온 개수 기준 (최대 5)
-        int totalPages = Math.max(1, (int) Math.ceil(pool.size() / (double) pageSize));
-        if (totalPages > maxTotalPages) totalPages = maxTotalPages;
-        p = Math.max(1, Math.min(p, totalPages));
-
-        // 페이징 슬라이스
-        int from = (p - 1) * pageSize;
-        int to   = Math.min(from + pageSize, pool.size());
-        List<Place> pageItems = (from < to) ? pool.subList(from, to) : java.util.List.of();
+        // popularity 는 전체 places 기준으로 미리 계산한 값 (이 페이지 행끼리만 세면 밀도가 틀어진다)
+        for (Place place : fetched) {
+            try { popularitySnapshot.applyTo(place); }
+            catch (Exception e) { log.debug("[benefits] popularity lookup skipped: {}", e.getMessage()); }
+        }
+        try { scoreService.applyScores(fetched, null, null); }
+        catch (Exception e) { log.debug("[benefits] score compute skipped: {}", e.getMessage()); }
+        String key = "popular".equalsIgnoreCase(sort) ? "popular" : "benefit";
+        List<Place> ordered = scoreService.topK(fetched, key, pageSize);
 
-        // payload 변환 (엔티티 직접 노출 X)
-        var out = new java.util.ArrayList<java.util.Map<String, Object>>(pageItems.size());
-        for (Place place : pageItems) out.add(toPlacePayload(place));
+        var out = new ArrayList<Map<String, Object>>(ordered.size());
+        for (Place place : ordered) out.add(toPlacePayload(place));
 
-        var data = new java.util.LinkedHashMap<String, Object>();
+        var data = new LinkedHashMap<String, Object>();
         data.put("items", out);
         data.put("page", p);
         data.put("pageSize", pageSize);
+        data.put("totalPages", Math.max(totalPages, p));
+        data.put("hasNext", hasNext);
+        data.put("nextCursor", nextCursor);
+        return Map.of("data", data);
+    }
+
+    /** 리더보드 구간 [offset, offset + pageSize) 만 점수 계산해서 그 순서대로 */
+    private Map<String, Object> leaderboardPage(PlaceRegionIndex regions, String sido, String sigungu, String sort,
+                                                int offset, int page, int pageSize, int totalPages) {
+        var order = "popular".equalsIgnoreCase(sort) ? PlaceRegionIndex.Order.POPULAR : PlaceRegionIndex.Order.BENEFIT;
+        int[] rows = regions.slice(sido, sigungu, order, offset, pageSize);
+        int n = rows.length;
+        PlaceColumns cols = regions.columns();
+
+        ScoreColumns scores = new ScoreColumns(n);
+        for (int i = 0; i < n; i++) scores.popularity[i] = regions.popularity(rows[i]);
+        try { scoreService.applyScores(cols, rows, n, null, null, scores); }
+        catch (Exception e) { log.debug("[benefits] score compute skipped: {}", e.getMessage()); }
+
+        var out = new ArrayList<Map<String, Object>>(n);
+        for (int i = 0; i < n; i++) {
+            Place place = cols.toPlace(rows[i]);
+            scores.copyTo(i, place);
+            out.add(toPlacePayload(place));
+        }
+        boolean hasNext = (long) offset + n < regions.count(sido, sigungu);
+        String nextCursor = hasNext ? new LeaderboardCursor(offset + n).encode() : null;
+
+        var data = new LinkedHashMap<String, Object>();
+        data.put("items", out);
+        data.put("page", page);
+        data.put("pageSize", pageSize);
         data.put("totalPages", totalPages);
+        data.put("hasNext", hasNext);
+        data.put("nextCursor", nextCursor);
+        return Map.of("data", data);
+    }
+
+    // ✅ 이름/주소 검색: /api/places/search?q=스타벅스 (메모리 2-gram 색인, DB 조회 없음)
+    @GetMapping("/api/places/search")
+    public ResponseEntity<?> search(@RequestParam("q") String q,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        final int maxLimit = 50;
+        if (PlaceSearchIndex.normalize(q).length() < PlaceSearchIndex.MIN_QUERY_LENGTH) {
+            return ResponseEntity.badRequest().body(Map.of("ok", false,
+                    "message", "q must be at least " + PlaceSearchIndex.MIN_QUERY_LENGTH + " characters"));
+        }
+        PlaceSearchIndex idx = placeSearch.index();
+        if (idx == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("ok", false, "message", "search index is not ready"));
+        }
+
+        int[] rows = idx.search(q, Math.min(Math.max(1, limit), maxLimit));
+        PlaceColumns cols = idx.columns();
+        var items = new ArrayList<Map<String, Object>>(rows.length);
+        for (int r : rows) {
+            Place place = cols.toPlace(r);
+            popularitySnapshot.applyTo(place);
+            items.add(toPlacePayload(place));
+        }
 
-        return java.util.Map.of("data", data);
+        var data = new LinkedHashMap<String, Object>();
+        data.put("items", items);
+        data.put("query", q);
+        return ResponseEntity.ok(Map.of("data", data));
     }
 
-    // null -> 0 방어
-    private static int nz(Integer v) { return v == null ? 0 : v; }
+    // ✅ 입력 중 자동완성: /api/places/autocomplete?q=강남 (장소 이름 + 시도/시군구, 입력 중인 글자도 허용)
+    @GetMapping("/api/places/autocomplete")
+    public ResponseEntity<?> autocomplete(@RequestParam("q") String q,
+                                          @RequestParam(defaultValue = "10") int limit) {
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("ok", false, "message", "q is required"));
+        }
+        PlaceAutocompleteIndex idx = placeAutocomplete.index();
+        if (idx == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("ok", false, "message", "autocomplete index is not ready"));
+        }
+
+        int[] hits = idx.complete(q, Math.min(Math.max(1, limit), idx.topN()));
+        var items = new ArrayList<Map<String, Object>>(hits.length);
+        for (int e : hits) {
+            var m = new LinkedHashMap<String, Object>();
+            m.put("type", idx.isRegion(e) ? "region" : "place");
+            m.put("text", idx.text(e));
+            m.put("placeId", idx.placeId(e));
+            m.put("sido", idx.sido(e));
+            m.put("sigungu", idx.sigungu(e));
+            items.add(m);
+        }
+
+        var data = new LinkedHashMap<String, Object>();
+        data.put("items", items);
+        data.put("query", q);
+        return ResponseEntity.ok(Map.of("data", data));
+    }
 
     // Place -> JSON payload (민감/내부 필드 노출 방지)
     private java.util.Map<String,Object> toPlacePayload(Place p){
@@ -0,0 +1,76 @@
+package com.example.domo.controller;
+
+import com.example.domo.config.ReplicaRoutingDataSource;
+import com.example.domo.service.PlaceCache;
+import com.example.domo.service.PlaceStore;
+import com.example.domo.service.PlaceSpatialIndex;
+import com.example.domo.service.PopularitySnapshot;
+import com.example.domo.service.ScoringPool;
+import com.example.domo.service.SupabaseService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** 장소 조회 경로/메모리 저장소 상태 확인용 (dec 프로필에서만 노출) */
+@Profile("dec")
+@RestController
+@RequestMapping("/api/_debug")
+public class PlaceDebugController {
+
+    private final SupabaseService supabase;
+    private final PlaceStore store;
+    private final PlaceCache placeCache;
+    private final PopularitySnapshot popularity;
+    private final ScoringPool scoringPool;
+    private final DataSource dataSource;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
+    public PlaceDebugController(SupabaseService supabase, PlaceStore store, PlaceCache placeCache,
+                                PopularitySnapshot popularity, ScoringPool scoringPool, DataSource dataSource, ObjectProvider<ReplicaRoutingDataSource> replicaRouting) {
+        this.supabase = supabase;
+        this.store = store;
+        this.placeCache = placeCache;
+        this.popularity = popularity;
+        this.scoringPool = scoringPool;
+        this.dataSource = dataSource;
+        this.replicaRouting = replicaRouting;
+    }
+
+    @GetMapping("/geo")
+    public Map<String, Object> geo() {
+        PlaceSpatialIndex idx = store.index();
+        var m = new LinkedHashMap<String, Object>();
+        m.put("strategy", supabase.geoStrategy());
+        m.put("indexedPlaces", idx == null ? 0 : idx.size());
+        m.put("snapshotVersion", store.version());
+        m.put("watermark", store.watermark());
+        m.put("popularityPlaces", popularity.size());
+        m.put("popularityVersion", popularity.computedVersion());
+        return Map.of("data", m);
+    }
+
+    @GetMapping("/place-cache")
+    public Map<String, Object> placeCacheStats() {
+        return Map.of("data", placeCache.stats());
+    }
+
+    /** 점수 계산 순차/병렬 경로 횟수 */
+    @GetMapping("/scoring")
+    public Map<String, Object> scoring() {
+        return Map.of("data", scoringPool.stats());
+    }
+
+    /** 커넥션 풀 상태 (replica 라우팅이 켜져 있으면 풀별 + 라우팅 횟수) */
+    @GetMapping("/datasource")
+    public Map<String, Object> datasource() {
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        if (routing != null) return Map.of("data", routing.stats());
+        return Map.of("data", Map.of("primary", ReplicaRoutingDataSource.poolStats(dataSource)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.domo.controller;
+
+import com.example.domo.model.Place;
+import com.example.domo.service.SupabaseService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * 분석용 장소 내보내기. 한 줄에 장소 하나(NDJSON)를 DB 커서에서 읽는 즉시 응답 스트림에 쓴다.
+ * 행 수와 상관없이 메모리는 JSON 출력 버퍼 정도만 쓴다.
+ */
+@RestController
+public class PlaceExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final SupabaseService supabaseService;
+    private final ObjectMapper om = new ObjectMapper();
+
+    public PlaceExportController(SupabaseService supabaseService) {
+        this.supabaseService = supabaseService;
+    }
+
+    // 예: /api/places/export?sido=서울&sigungu=강남구&category=카페,음식점
+    @GetMapping("/api/places/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String sido,
+            @RequestParam(required = false) String sigungu,
+            @RequestParam(value = "category", required = false) List<String> categories
+    ) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator g = om.getFactory().createGenerator(out)) {
+                g.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                g.setRootValueSeparator(null);   // 줄 구분은 writeLine 의 '\n' 만
+                supabaseService.streamPlaces(sido, sigungu, categories, p -> writeLine(g, p));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private static void writeLine(JsonGenerator g, Place p) {
+        try {
+            g.writeStartObject();
+            g.writeStringField("placeId", p.getPlaceId());
+            g.writeStringField("name", p.getName());
+            g.writeStringField("category", p.getCategory());
+            g.writeStringField("address", p.getAddress());
+            writeNumberOrNull(g, "lat", p.getLat());
+            writeNumberOrNull(g, "lng", p.getLng());
+            g.writeStringField("sido", p.getSido());
+            g.writeStringField("sigungu", p.getSigungu());
+            g.writeNumberField("discountPercent", p.getDiscountPercent());
+            g.writeNumberField("totalScore", p.getTotalScore());
+            g.writeStringField("benefit", p.getBenefit());
+            g.writeEndObject();
+            g.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);   // 클라이언트가 끊으면 DB 커서도 여기서 멈춘다
+        }
+    }
+
+    private static void writeNumberOrNull(JsonGenerator g, String field, Double v) throws IOException {
+        if (v == null) g.writeNullField(field);
+        else g.writeNumberField(field, v);
+    }
+}
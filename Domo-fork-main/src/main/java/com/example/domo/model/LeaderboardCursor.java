@@ -0,0 +1,37 @@
+package com.example.domo.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 지역 리더보드(PlaceRegionIndex) 페이지 위치: 다음 페이지가 시작할 순위(0부터).
+ * 인덱스가 교체되면 순위가 조금 밀릴 수 있다(같은 행이 두 번 보이거나 하나 건너뛸 수 있음).
+ * PlaceCursor 와 같은 불투명 문자열이지만 "lb:" 로 시작해서 구분된다.
+ */
+public record LeaderboardCursor(int offset) {
+
+    private static final String PREFIX = "lb:";
+
+    public String encode() {
+        String raw = PREFIX + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** 리더보드 커서가 아니면 null (PlaceCursor 일 수 있음), 리더보드 커서인데 형식이 틀리면 예외 */
+    public static LeaderboardCursor tryDecode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+        if (!raw.startsWith(PREFIX)) return null;
+        try {
+            int offset = Integer.parseInt(raw.substring(PREFIX.length()));
+            if (offset < 0) throw new NumberFormatException();
+            return new LeaderboardCursor(offset);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+    }
+}
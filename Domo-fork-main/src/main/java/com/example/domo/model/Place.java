@@ -1,6 +1,13 @@
 package com.example.domo.model;
 
+import com.example.domo.util.CategoryDictionary;
+import com.example.domo.util.KoreanCollation;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 @Data
 public class Place {
@@ -23,10 +30,77 @@ public class Place {
     private int totalScore;
     private String benefit;
 
+    // name 의 한국어 정렬 키 (처음 비교할 때 한 번 만들고 setName 에서 비운다). JSON/equals 대상 아님
+    // 캐시에 든 Place 는 여러 요청 스레드가 같이 정렬하므로 volatile 로 완성된 배열만 보이게 한다
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude @ToString.Exclude
+    private volatile byte[] nameKey;
+
+    // category 의 정규 코드 (CategoryDictionary, setCategory 에서 한 번 정한다). JSON/equals 대상 아님
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude @ToString.Exclude
+    private short categoryCode;
+
+    public void setName(String name) {
+        this.name = name;
+        this.nameKey = null;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+        this.categoryCode = CategoryDictionary.intern(category);
+    }
+
+    /** 동의어를 푼 카테고리 코드 (같은 카테고리인지는 이 값으로 비교) */
+    public short categoryCode() {
+        return categoryCode;
+    }
+
+    /** 이름 정렬 키 (KoreanCollation.compare 로 비교) */
+    public byte[] nameKey() {
+        byte[] k = nameKey;
+        if (k == null) nameKey = k = KoreanCollation.key(name);
+        return k;
+    }
+
+    /** 아직 만들지 않았으면 null (PlaceColumns 가 키를 옮겨 담을 때) */
+    byte[] nameKeyIfBuilt() {
+        return nameKey;
+    }
+
+    /** name 과 짝이 맞는 이미 만든 키를 넘겨받는다 */
+    void adoptNameKey(byte[] key) {
+        this.nameKey = key;
+    }
+
     public void updateScores(int distanceScore, int benefitScore, int popularScore) {
         this.distanceScore = distanceScore;
         this.benefitScore = benefitScore;
         this.popularScore = popularScore;
         this.totalScore   = distanceScore + benefitScore + popularScore;
     }
+
+    /** 캐시/인덱스에 보관된 원본을 호출자가 변경하지 못하도록 얕은 복사본을 만든다. */
+    public Place copy() {
+        Place q = new Place();
+        q.placeId = placeId;
+        q.name = name;
+        q.category = category;
+        q.categoryCode = categoryCode;
+        q.address = address;
+        q.lat = lat;
+        q.lng = lng;
+        q.sido = sido;
+        q.sigungu = sigungu;
+        q.distance = distance;
+        q.discountPercent = discountPercent;
+        q.popularity = popularity;
+        q.distanceScore = distanceScore;
+        q.benefitScore = benefitScore;
+        q.popularScore = popularScore;
+        q.totalScore = totalScore;
+        q.benefit = benefit;
+        q.nameKey = nameKey;   // 키는 바꾸지 않으므로 공유해도 된다
+        return q;
+    }
 }
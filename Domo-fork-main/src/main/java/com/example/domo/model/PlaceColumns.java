@@ -0,0 +1,281 @@
+package com.example.domo.model;
+
+import com.example.domo.util.CategoryDictionary;
+import com.example.domo.util.KoreanCollation;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+
+/**
+ * 장소 목록의 읽기 전용 열(column) 스냅샷.
+ * 반경 필터/점수/정렬 루프가 Place 객체를 따라가며 박싱된 값을 꺼내지 않도록 기본형 배열로 펼쳐둔다.
+ * Place 는 최종 페이지/일정에 실릴 행만 toPlace() 로 만든다.
+ *
+ * 행 번호는 of() 에 넘긴 목록의 순서 그대로다. 좌표가 없는 행의 lat/lng 는 NaN.
+ */
+public final class PlaceColumns {
+
+    // nameKey 칸은 여러 스레드가 나중에 채운다: release 로 쓰고 acquire 로 읽어야 다른 스레드가 덜 채운 배열을 보지 않는다
+    private static final VarHandle NAME_KEY = MethodHandles.arrayElementVarHandle(byte[][].class);
+
+    public static final PlaceColumns EMPTY = of(List.of());
+
+    private final int size;
+
+    private final String[] placeId;
+    private final String[] name;
+    private final String[] address;
+    private final String[] sido;
+    private final String[] sigungu;
+    private final String[] benefit;
+    private final byte[][] nameKey;     // 한국어 정렬 키, 처음 쓸 때 행마다 한 번 만든다 (NAME_KEY 로만 접근)
+
+    private final double[] lat;
+    private final double[] lng;
+    private final int[] discount;
+    private final int[] totalScore;
+
+    private final short[] categoryCode;
+    private final List<String> categoryTable;   // code → 원문
+    private final short[] categoryId;   // code → CategoryDictionary 정규 코드 (동의어 풀이), 생성 전에 한 번 계산
+
+    private PlaceColumns(int n, List<String> categoryTable, short[] categoryId) {
+        size = n;
+        placeId = new String[n];
+        name = new String[n];
+        address = new String[n];
+        sido = new String[n];
+        sigungu = new String[n];
+        benefit = new String[n];
+        nameKey = new byte[n][];
+        lat = new double[n];
+        lng = new double[n];
+        discount = new int[n];
+        totalScore = new int[n];
+        categoryCode = new short[n];
+        this.categoryTable = categoryTable;
+        this.categoryId = categoryId;
+    }
+
+    public static PlaceColumns of(List<Place> places) {
+        int n = places.size();
+        List<String> table = new ArrayList<>();
+        table.add(null);                                   // code 0 = 카테고리 없음
+        Map<String, Short> codes = new HashMap<>();
+        short[] rowCode = new short[n];
+        for (int i = 0; i < n; i++) {
+            String cat = places.get(i).getCategory();
+            rowCode[i] = (cat == null) ? 0 : codes.computeIfAbsent(cat, k -> {
+                table.add(k);
+                return (short) (table.size() - 1);
+            });
+        }
+
+        PlaceColumns c = new PlaceColumns(n, table, categoryIds(table));
+        for (int i = 0; i < n; i++) {
+            Place p = places.get(i);
+            c.placeId[i] = p.getPlaceId();
+            c.name[i] = p.getName();
+            c.nameKey[i] = p.nameKeyIfBuilt();
+            c.address[i] = p.getAddress();
+            c.sido[i] = p.getSido();
+            c.sigungu[i] = p.getSigungu();
+            c.benefit[i] = p.getBenefit();
+            boolean hasLatLng = p.getLat() != null && p.getLng() != null;
+            c.lat[i] = hasLatLng ? p.getLat() : Double.NaN;
+            c.lng[i] = hasLatLng ? p.getLng() : Double.NaN;
+            c.discount[i] = p.getDiscountPercent();
+            c.totalScore[i] = p.getTotalScore();
+            c.categoryCode[i] = rowCode[i];
+        }
+        return c;
+    }
+
+    private static short[] categoryIds(List<String> table) {
+        short[] ids = new short[table.size()];
+        for (int code = 1; code < ids.length; code++) ids[code] = CategoryDictionary.intern(table.get(code));
+        return ids;
+    }
+
+    /**
+     * a, b 의 행을 from 순서대로 이어 붙인 새 스냅샷 (from[i] >= 0 → a 의 from[i] 행, 음수 → b 의 ~from[i] 행).
+     * 카테고리 표는 a 의 것을 그대로 두고 b 에만 있는 카테고리를 뒤에 붙인다. 이미 만든 이름 정렬 키도 옮겨 담는다.
+     */
+    public static PlaceColumns merge(PlaceColumns a, PlaceColumns b, int[] from) {
+        List<String> table = new ArrayList<>(a.categoryTable);
+        Map<String, Short> codes = new HashMap<>();
+        for (int code = 1; code < table.size(); code++) codes.putIfAbsent(table.get(code), (short) code);
+        short[] bCode = new short[b.categoryTable.size()];
+        for (int code = 1; code < bCode.length; code++) {
+            bCode[code] = codes.computeIfAbsent(b.categoryTable.get(code), k -> {
+                table.add(k);
+                return (short) (table.size() - 1);
+            });
+        }
+
+        int n = from.length;
+        PlaceColumns c = new PlaceColumns(n, table, categoryIds(table));
+        for (int i = 0; i < n; i++) {
+            boolean fromA = from[i] >= 0;
+            PlaceColumns src = fromA ? a : b;
+            int r = fromA ? from[i] : ~from[i];
+            c.placeId[i] = src.placeId[r];
+            c.name[i] = src.name[r];
+            c.nameKey[i] = src.builtNameKey(r);
+            c.address[i] = src.address[r];
+            c.sido[i] = src.sido[r];
+            c.sigungu[i] = src.sigungu[r];
+            c.benefit[i] = src.benefit[r];
+            c.lat[i] = src.lat[r];
+            c.lng[i] = src.lng[r];
+            c.discount[i] = src.discount[r];
+            c.totalScore[i] = src.totalScore[r];
+            c.categoryCode[i] = fromA ? src.categoryCode[r] : bCode[src.categoryCode[r]];
+        }
+        return c;
+    }
+
+    public int size() { return size; }
+
+    public String placeId(int r) { return placeId[r]; }
+    public String name(int r) { return name[r]; }
+
+    /**
+     * 이름 정렬 키 (KoreanCollation.compare 로 비교).
+     * 여러 스레드가 동시에 만들어도 같은 값이라 잠그지 않고, 만든 배열은 release/acquire 로 넘긴다.
+     */
+    public byte[] nameKey(int r) {
+        byte[] k = builtNameKey(r);
+        if (k == null) {
+            k = KoreanCollation.key(name[r]);
+            NAME_KEY.setRelease(nameKey, r, k);
+        }
+        return k;
+    }
+
+    /** 아직 만들지 않았으면 null */
+    private byte[] builtNameKey(int r) {
+        return (byte[]) NAME_KEY.getAcquire(nameKey, r);
+    }
+    public String address(int r) { return address[r]; }
+    public String sido(int r) { return sido[r]; }
+    public String sigungu(int r) { return sigungu[r]; }
+    public String benefit(int r) { return benefit[r]; }
+    public double lat(int r) { return lat[r]; }
+    public double lng(int r) { return lng[r]; }
+    public int discount(int r) { return discount[r]; }
+    public int totalScore(int r) { return totalScore[r]; }
+    public short categoryCode(int r) { return categoryCode[r]; }
+    public String category(int r) { return categoryTable.get(categoryCode[r]); }
+    /** 동의어를 푼 정규 카테고리 코드 (CategoryDictionary) */
+    public short categoryId(int r) { return categoryId[categoryCode[r]]; }
+    /** categoryCode → 카테고리 원문 (0 = null) */
+    public List<String> categoryTable() { return Collections.unmodifiableList(categoryTable); }
+
+    public boolean hasLatLng(int r) {
+        double a = lat[r], b = lng[r];
+        return Double.isFinite(a) && Double.isFinite(b);
+    }
+
+    /** r 행이 p 와 같은 내용인지 (열로 들고 있는 값만 비교, 변경분에서 이미 반영한 행을 거를 때) */
+    public boolean sameAs(int r, Place p) {
+        boolean pHasLatLng = p.getLat() != null && p.getLng() != null;
+        if (pHasLatLng != hasLatLng(r)) return false;
+        if (pHasLatLng && (Double.compare(p.getLat(), lat[r]) != 0 || Double.compare(p.getLng(), lng[r]) != 0)) return false;
+        return Objects.equals(placeId[r], p.getPlaceId())
+                && Objects.equals(name[r], p.getName())
+                && Objects.equals(category(r), p.getCategory())
+                && Objects.equals(address[r], p.getAddress())
+                && Objects.equals(sido[r], p.getSido())
+                && Objects.equals(sigungu[r], p.getSigungu())
+                && Objects.equals(benefit[r], p.getBenefit())
+                && discount[r] == p.getDiscountPercent()
+                && totalScore[r] == p.getTotalScore();
+    }
+
+    /** r 행을 새 Place 로 만든다(popularity 와 세부 점수는 0) */
+    public Place toPlace(int r) {
+        Place p = new Place();
+        p.setPlaceId(placeId[r]);
+        p.setName(name[r]);
+        byte[] key = builtNameKey(r);
+        if (key != null) p.adoptNameKey(key);
+        p.setCategory(category(r));
+        p.setAddress(address[r]);
+        if (hasLatLng(r)) {
+            p.setLat(lat[r]);
+            p.setLng(lng[r]);
+        }
+        p.setSido(sido[r]);
+        p.setSigungu(sigungu[r]);
+        p.setBenefit(benefit[r]);
+        p.setDiscountPercent(discount[r]);
+        p.setTotalScore(totalScore[r]);
+        return p;
+    }
+
+    /**
+     * 열 배열을 통째로 받아 스냅샷을 만든다 (디스크 스냅샷처럼 행이 아니라 열 단위로 읽는 곳).
+     * 넘긴 배열은 복사해 두므로 호출자가 다시 써도 된다. 채우지 않은 열은 null/0 이다.
+     */
+    public static Builder builder(int n, List<String> categoryTable) {
+        return new Builder(n, categoryTable);
+    }
+
+    public static final class Builder {
+
+        private final int n;
+        private final PlaceColumns c;
+        private boolean built;
+
+        private Builder(int n, List<String> categoryTable) {
+            if (categoryTable.isEmpty() || categoryTable.get(0) != null) {
+                throw new IllegalArgumentException("category code 0 must be null");
+            }
+            List<String> table = new ArrayList<>(categoryTable);
+            this.n = n;
+            this.c = new PlaceColumns(n, table, categoryIds(table));
+        }
+
+        public Builder placeIds(String[] v) { return copy(v, c.placeId); }
+        public Builder names(String[] v) { return copy(v, c.name); }
+        public Builder addresses(String[] v) { return copy(v, c.address); }
+        public Builder sidos(String[] v) { return copy(v, c.sido); }
+        public Builder sigungus(String[] v) { return copy(v, c.sigungu); }
+        public Builder benefits(String[] v) { return copy(v, c.benefit); }
+
+        public Builder lats(double[] v) { check(v.length); System.arraycopy(v, 0, c.lat, 0, n); return this; }
+        public Builder lngs(double[] v) { check(v.length); System.arraycopy(v, 0, c.lng, 0, n); return this; }
+        public Builder discounts(int[] v) { check(v.length); System.arraycopy(v, 0, c.discount, 0, n); return this; }
+        public Builder totalScores(int[] v) { check(v.length); System.arraycopy(v, 0, c.totalScore, 0, n); return this; }
+
+        /** 값은 categoryTable 의 인덱스여야 한다 */
+        public Builder categoryCodes(short[] v) {
+            check(v.length);
+            for (short code : v) {
+                if (code < 0 || code >= c.categoryTable.size()) throw new IllegalArgumentException("category code out of range: " + code);
+            }
+            System.arraycopy(v, 0, c.categoryCode, 0, n);
+            return this;
+        }
+
+        /** 한 번만 부를 수 있다 (만든 뒤에는 열을 바꾸지 못하게) */
+        public PlaceColumns build() {
+            check(n);
+            built = true;
+            return c;
+        }
+
+        private Builder copy(String[] v, String[] into) {
+            check(v.length);
+            System.arraycopy(v, 0, into, 0, n);
+            return this;
+        }
+
+        private void check(int length) {
+            if (built) throw new IllegalStateException("already built");
+            if (length != n) throw new IllegalArgumentException("column length " + length + " != " + n);
+        }
+    }
+}
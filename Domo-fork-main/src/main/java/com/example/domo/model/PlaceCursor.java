@@ -0,0 +1,71 @@
+package com.example.domo.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * 키셋 페이지 위치: (totalscore DESC, discountpercent DESC, place_id ASC) 순서에서 마지막으로 내준 행.
+ * 클라이언트에는 encode() 한 불투명 문자열로만 내보낸다.
+ */
+public record PlaceCursor(int totalScore, int discountPercent, String placeId) {
+
+    /** 키셋 순서 (앞선 것이 작다) */
+    public static final Comparator<PlaceCursor> ORDER =
+            Comparator.comparingInt(PlaceCursor::totalScore).reversed()
+                    .thenComparing(Comparator.comparingInt(PlaceCursor::discountPercent).reversed())
+                    .thenComparing(PlaceCursor::placeId);
+
+    /** DB 에서 읽은 그대로의 점수로 만든다(applyScores 로 덮어쓰기 전에 호출할 것) */
+    public static PlaceCursor of(Place p) {
+        return new PlaceCursor(p.getTotalScore(), p.getDiscountPercent(), p.getPlaceId());
+    }
+
+    public String encode() {
+        return encodeRaw(totalScore + ":" + discountPercent + ":" + placeId);
+    }
+
+    /** /api/benefits 용: 다음 페이지 번호(1부터)를 같이 싣는다. decode 는 그대로 읽고 번호는 pageOf 로 꺼낸다 */
+    public String encode(int page) {
+        return encodeRaw(totalScore + ":" + discountPercent + ":" + placeId + ":" + page);
+    }
+
+    public static PlaceCursor decode(String token) {
+        String[] f = fields(token);
+        try {
+            return new PlaceCursor(Integer.parseInt(f[0]), Integer.parseInt(f[1]), UUID.fromString(f[2]).toString());
+        } catch (IllegalArgumentException e) {   // 숫자/uuid 형식 오류
+            throw new IllegalArgumentException("invalid cursor");
+        }
+    }
+
+    /** encode(page) 로 만든 토큰의 페이지 번호, 번호 없이 만든 토큰이면 0 */
+    public static int pageOf(String token) {
+        String[] f = fields(token);
+        if (f.length < 4) return 0;
+        try {
+            int page = Integer.parseInt(f[3]);
+            if (page < 1) throw new NumberFormatException();
+            return page;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] fields(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+        String[] f = raw.split(":", 4);
+        if (f.length < 3 || f[2].isEmpty()) throw new IllegalArgumentException("invalid cursor");
+        return f;
+    }
+}
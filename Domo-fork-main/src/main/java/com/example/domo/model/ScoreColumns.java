@@ -0,0 +1,35 @@
+package com.example.domo.model;
+
+/**
+ * PlaceColumns 의 일부 행(rows[0..n))에 대한 점수 계산 결과.
+ * 배열 인덱스는 행 번호가 아니라 rows 배열 안의 위치(pos)다.
+ */
+public final class ScoreColumns {
+
+    public final double[] distanceKm;
+    public final int[] popularity;
+    public final int[] discount;        // 할인율(0 이상으로 자른 값), applyScores 가 채우는 입력 열
+    public final int[] distanceScore;
+    public final int[] benefitScore;
+    public final int[] popularScore;
+    public final int[] totalScore;
+
+    public ScoreColumns(int capacity) {
+        distanceKm = new double[capacity];
+        popularity = new int[capacity];
+        discount = new int[capacity];
+        distanceScore = new int[capacity];
+        benefitScore = new int[capacity];
+        popularScore = new int[capacity];
+        totalScore = new int[capacity];
+    }
+
+    public int capacity() { return totalScore.length; }
+
+    /** pos 위치의 계산 결과를 materialize 된 Place 에 옮긴다 */
+    public void copyTo(int pos, Place p) {
+        p.setDistance(distanceKm[pos]);
+        p.setPopularity(popularity[pos]);
+        p.updateScores(distanceScore[pos], benefitScore[pos], popularScore[pos]);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.domo.service;
+
+import com.example.domo.model.Place;
+import com.example.domo.model.PlaceCursor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.OptionalDouble;
+import java.util.function.Consumer;
+
+/**
+ * SupabaseService 데코레이터.
+ * 반경 조회(fetchPlacesNear / fetchNearestPlace)는 PlaceStore 의 격자 인덱스로 처리하고,
+ * 인덱스가 준비되지 않았으면 원래 구현(SupabaseServiceImpl)으로 넘긴다.
+ * 단건 조회(fetchByPlaceId)는 PlaceCache 를 거친다. 지역 건수(countPlaces)는 PlaceRegions 리더보드 길이
+ * (스토어가 max-rows 에서 끊겼으면 DB).
+ */
+@Primary
+@Service
+public class CachingSupabaseService implements SupabaseService {
+
+    private final SupabaseService delegate;
+    private final PlaceStore store;
+    private final PlaceCache placeCache;
+    private final PlaceRegions regions;
+
+    private volatile long cachedStoreVersion;   // 스냅샷이 바뀌면 바뀐 place_id 만 단건 캐시에서 뺀다
+
+    public CachingSupabaseService(@Qualifier("placeDatabase") SupabaseService delegate,
+                                  PlaceStore store,
+                                  PlaceCache placeCache,
+                                  PlaceRegions regions) {
+        this.delegate = delegate;
+        this.store = store;
+        this.placeCache = placeCache;
+        this.regions = regions;
+    }
+
+    @Override
+    public List<Place> fetchPlaces(String sido, String sigungu, int limit, int offset) {
+        return delegate.fetchPlaces(sido, sigungu, limit, offset);
+    }
+
+    /** 내보내기는 분석용이라 메모리 스냅샷이 아닌 DB 최신 상태를 그대로 읽는다 */
+    @Override
+    public void streamPlaces(String sido, String sigungu, List<String> categories, Consumer<Place> sink) {
+        delegate.streamPlaces(sido, sigungu, categories, sink);
+    }
+
+    @Override
+    public List<Place> fetchPlacesAfter(String sido, String sigungu, PlaceCursor after, int limit) {
+        PlaceSpatialIndex idx = store.index();
+        if (idx == null) return delegate.fetchPlacesAfter(sido, sigungu, after, limit);
+        return idx.pageAfter(emptyToNull(sido), emptyToNull(sigungu), after, limit);
+    }
+
+    @Override
+    public List<Place> fetchPlacesInOrder(List<String> placeIds) {
+        if (placeIds == null || placeIds.isEmpty()) return List.of();
+        return SupabaseServiceImpl.inRequestOrder(placeIds, fetchByPlaceIds(placeIds));
+    }
+
+    /** 캐시에 없는 id 만 모아 한 번에 조회한다 */
+    @Override
+    public Map<String, Place> fetchByPlaceIds(Collection<String> placeIds) {
+        Map<String, List<String>> requested = SupabaseServiceImpl.groupByCanonicalId(placeIds);
+        if (requested.isEmpty()) return Collections.emptyMap();   // Map.of() 는 get(null) 에서 NPE
+        syncCacheWithStore();
+
+        Map<String, Place> found = placeCache.getAll(requested.keySet(), delegate::fetchByPlaceIds);
+        Map<String, Place> out = new LinkedHashMap<>();
+        requested.forEach((id, keys) -> {
+            Place p = found.get(id);
+            if (p == null) return;
+            for (int i = 0; i < keys.size(); i++) out.put(keys.get(i), i == 0 ? p : p.copy());
+        });
+        return out;
+    }
+
+    @Override
+    public Optional<Place> fetchByPlaceId(String placeId) {
+        if (isBlank(placeId)) return Optional.empty();
+        // uuid 형식이 아니면 DB 캐스팅 오류가 날 코드라 DB 에 보내지 않고 없는 코드로 기억한다
+        String id = SupabaseServiceImpl.canonicalId(placeId);
+        if (id == null) return placeCache.get(placeId, k -> Optional.empty());
+        syncCacheWithStore();
+        return placeCache.get(id, delegate::fetchByPlaceId);
+    }
+
+    private void syncCacheWithStore() {
+        if (store.version() != cachedStoreVersion) invalidateChanged();
+    }
+
+    /** 마지막으로 맞춘 버전 이후 바뀐 place_id 만 캐시에서 뺀다 */
+    private synchronized void invalidateChanged() {
+        long v = store.version();
+        long cached = cachedStoreVersion;
+        if (v == cached) return;
+        Set<String> changed = store.changedIdsSince(cached, v);
+        if (changed == null) {
+            placeCache.clear();   // 전체 적재였거나 기록이 모자라다
+        } else {
+            for (String id : changed) {
+                String c = SupabaseServiceImpl.canonicalId(id);
+                if (c != null) placeCache.invalidate(c);
+            }
+        }
+        cachedStoreVersion = v;
+    }
+
+    @Override
+    public int countPlaces(String sido, String sigungu) {
+        PlaceRegionIndex idx = regions.index();
+        // 스토어가 max-rows 에서 끊겼으면 리더보드 길이는 실제 건수보다 작다
+        if (idx == null || store.truncated()) return delegate.countPlaces(sido, sigungu);
+        return idx.count(sido, sigungu);
+    }
+
+    @Override
+    public Optional<Place> fetchNearestPlace(Double lat, Double lng, double radiusKm) {
+        PlaceSpatialIndex idx = store.index();
+        if (idx == null || lat == null || lng == null) return delegate.fetchNearestPlace(lat, lng, radiusKm);
+        return idx.nearest(lat, lng, radiusKm);
+    }
+
+    @Override
+    public List<Place> fetchPlacesNear(double centerLat, double centerLng, double radiusKm, List<String> categories, int limit) {
+        PlaceSpatialIndex idx = store.index();
+        if (idx == null) return delegate.fetchPlacesNear(centerLat, centerLng, radiusKm, categories, limit);
+        return idx.near(centerLat, centerLng, radiusKm, categories, limit);
+    }
+
+    @Override
+    public OptionalDouble kthNearestDistanceKm(double centerLat, double centerLng, double maxRadiusKm, List<String> categories, int k) {
+        PlaceSpatialIndex idx = store.index();
+        if (idx == null) return delegate.kthNearestDistanceKm(centerLat, centerLng, maxRadiusKm, categories, k);
+        return idx.kthNearestDistanceKm(centerLat, centerLng, maxRadiusKm, categories, k);
+    }
+
+    @Override
+    public List<Place> fetchKNearest(double lat, double lng, int k, List<String> categories) {
+        PlaceSpatialIndex idx = store.index();
+        if (idx == null) return delegate.fetchKNearest(lat, lng, k, categories);
+        return idx.kNearest(lat, lng, k, categories);
+    }
+
+    @Override
+    public Optional<PlaceChangeSet> fetchPlaceChanges(Instant since) {
+        return delegate.fetchPlaceChanges(since);
+    }
+
+    @Override
+    public GeoStrategy geoStrategy() {
+        return store.index() != null ? GeoStrategy.IN_MEMORY_INDEX : delegate.geoStrategy();
+    }
+
+    private static String emptyToNull(String s) {
+        return isBlank(s) ? null : s;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isEmpty();
+    }
+}
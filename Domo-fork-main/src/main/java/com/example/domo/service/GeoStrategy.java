@@ -0,0 +1,11 @@
+package com.example.domo.service;
+
+/** 반경/최근접 조회를 어떤 경로로 처리하는지. 기동 시 DB 기능을 한 번 확인해서 고정한다. */
+public enum GeoStrategy {
+    /** PlaceStore 메모리 격자 인덱스 */
+    IN_MEMORY_INDEX,
+    /** earthdistance 확장: earth_box(GiST) 선필터 + earth_distance */
+    EARTH_BOX_SQL,
+    /** 확장 없음: 위/경도 BETWEEN 사각형만 SQL 로 거르고 하버사인은 자바에서 */
+    BOUNDING_BOX_SQL
+}
@@ -5,6 +5,7 @@ import com.example.domo.controller.dto.PlanRequest;
 import com.example.domo.controller.dto.PlanResponse;
 import com.example.domo.controller.dto.RemoveItemRequest;
 import com.example.domo.model.Place;
+import com.example.domo.util.CategoryDictionary;
 import com.example.domo.util.HaversineUtil;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -24,15 +25,26 @@ public class ItineraryService {
 
     private final SupabaseService supabaseService;
     private final GptService gptService;
+    private final ScoreService scoreService;
     private final ObjectMapper om = new ObjectMapper();
 
     private static final DateTimeFormatter HHMM = DateTimeFormatter.ofPattern("HH:mm");
     private static final Logger log = LoggerFactory.getLogger(ItineraryService.class);
+    private static final int MIN_POOL_SIZE = 20;   // 반경 확장을 멈추는 최소 후보 수
+    private static final int FALLBACK_SIZE = 6;    // GPT 실패 시 근접순으로 채울 장소 수
+    private static final int CATEGORY_LIMIT = 2;   // 일정 하나에 같은 주요 카테고리 최대 개수
     private final Set<String> excludeIds = new HashSet<>();
 
-    public ItineraryService(SupabaseService supabaseService, GptService gptService) {
+    public ItineraryService(SupabaseService supabaseService, GptService gptService, ScoreService scoreService) {
         this.supabaseService = supabaseService;
         this.gptService = gptService;
+        this.scoreService = scoreService;
+    }
+
+    /** 기준 좌표에서 가까운 순 k 곳 (거리를 채운 뒤 "near" 키로 top-k, 후보 전체를 정렬하지 않는다) */
+    private List<Place> nearestFirst(List<Place> pool, double lat, double lng, int k) {
+        for (Place p : pool) p.setDistance(HaversineUtil.distanceKm(lat, lng, nz(p.getLat()), nz(p.getLng())));
+        return scoreService.topK(pool, "near", k);
     }
 
     /** 주소 좌표 → 반경 내 DB 후보만 → GPT가 후보 중에서만 선택/시간 배치 → 일정 응답 */
@@ -50,19 +62,21 @@ public class ItineraryService {
         final List<String> categories = (req.getCategories() == null) ? List.of()
                 : req.getCategories().stream().filter(Objects::nonNull).map(String::toLowerCase).toList();
 
-        // 1) 반경 자동 확장: DB 쿼리 실패 대비 폴백 포함
-        List<Place> pool = new ArrayList<>();
+        // 1) 반경 자동 확장: k번째 후보 거리로 반경을 먼저 고르고 후보 조회는 한 번만
+        List<Place> pool;
         double[] steps = { radius, 8, 12, 15, 20, 30 };
-        for (double r : steps) {
-            try {
-                pool = supabaseService.fetchPlacesNear(userLat, userLng, r, categories, candidateLimit);
-            } catch (Exception ex) {
-                // ✅ DB 확장 미설치/SQL 차이/임시장애 등: 자바 폴백(일반 리스트 → 하버사인 필터)
-                log.error("[fetchPlacesNear] failed: {}  → fallback to in-memory filter", ex.getMessage());
-                List<Place> all = supabaseService.fetchPlaces(null, null, Math.max(candidateLimit, 300), 0);
-                pool = filterByRadiusInMemory(all, userLat, userLng, r, categories);
-            }
-            if (pool.size() >= 20) { radius = r; break; }
+        int target = Math.max(1, Math.min(MIN_POOL_SIZE, candidateLimit));
+        try {
+            radius = pickRadius(steps,
+                    supabaseService.kthNearestDistanceKm(userLat, userLng, maxOf(steps), categories, target));
+            pool = supabaseService.fetchPlacesNear(userLat, userLng, radius, categories, candidateLimit);
+        } catch (Exception ex) {
+            // ✅ 임시장애/SQL 오류 등 (확장 유무는 기동 시 한 번만 확인): 자바 폴백(일반 리스트 → 하버사인 필터)
+            log.error("[fetchPlacesNear] failed: {}  → fallback to in-memory filter", ex.getMessage());
+            List<Place> all = supabaseService.fetchPlaces(null, null, Math.max(candidateLimit, 300), 0);
+            pool = filterByRadiusInMemory(all, userLat, userLng, maxOf(steps), categories);
+            radius = pickRadius(steps, kthDistanceKm(pool, userLat, userLng, target));
+            pool = filterByRadiusInMemory(pool, userLat, userLng, radius, categories);
         }
 
         // 1-2) 그래도 비면, 예외 던지지 말고 빈 일정 정상 응답
@@ -97,10 +111,7 @@ public class ItineraryService {
             planJson = gptService.planOneDayJson("AUTO", placesJson, userPrefJson);
         } catch (Exception e) {
             log.warn("[OpenAI] error: {}  → fallback to nearest ordering", e.getMessage());
-            List<Place> alt = pool.stream()
-                    .sorted(Comparator.comparingDouble(p ->
-                            HaversineUtil.distanceKm(userLat, userLng, nz(p.getLat()), nz(p.getLng()))))
-                    .limit(6).toList();
+            List<Place> alt = nearestFirst(pool, userLat, userLng, FALLBACK_SIZE);
             return buildPlanResponseFromPlaces(alt, userLat, userLng, startAt, endAt,
                     "GPT 장애로 근접순 대체");
         }
@@ -108,10 +119,7 @@ public class ItineraryService {
         // 4) GPT 결과 파싱 + 화이트리스트 검증(후보 밖 ID는 무시)
         List<GItem> gItems = parseGptItems(planJson);
         if (gItems.isEmpty()) {
-            List<Place> alt = pool.stream()
-                    .sorted(Comparator.comparingDouble(p ->
-                            HaversineUtil.distanceKm(userLat, userLng, nz(p.getLat()), nz(p.getLng()))))
-                    .limit(6).toList();
+            List<Place> alt = nearestFirst(pool, userLat, userLng, FALLBACK_SIZE);
             return buildPlanResponseFromPlaces(alt, userLat, userLng, startAt, endAt,
                     "GPT 빈 응답으로 근접순 대체");
         }
@@ -127,10 +135,7 @@ public class ItineraryService {
             picked.add(byId.get(gi.placeId));
         }
         if (picked.isEmpty()) {
-            List<Place> alt = pool.stream()
-                    .sorted(Comparator.comparingDouble(p ->
-                            HaversineUtil.distanceKm(userLat, userLng, nz(p.getLat()), nz(p.getLng()))))
-                    .limit(6).toList();
+            List<Place> alt = nearestFirst(pool, userLat, userLng, FALLBACK_SIZE);
             return buildPlanResponseFromPlaces(alt, userLat, userLng, startAt, endAt,
                     "검증 실패로 근접순 대체");
         }
@@ -165,16 +170,21 @@ public class ItineraryService {
             excludeIds.add(req.getExcludePlaceId());
         }
 
-        List<Place> pool = new ArrayList<>();
-        for (double r : new double[]{3, 5, 8}) {
-            try {
-                pool = supabaseService.fetchPlacesNear(lat, lng, r, cats, 200);
-            } catch (Exception ex) {
-                log.error("[fetchPlacesNear-again] failed: {} → fallback", ex.getMessage());
-                List<Place> all = supabaseService.fetchPlaces(null, null, 400, 0);
-                pool = filterByRadiusInMemory(all, lat, lng, r, cats);
-            }
-            if (!pool.isEmpty()) break;
+        // 가장 가까운 한 곳(KNN)으로 반경 단계를 고르고, 그 반경 안에서 점수순 200곳을 후보로 쓴다
+        double[] steps = { 3, 5, 8 };
+        List<Place> pool;
+        try {
+            List<Place> closest = supabaseService.fetchKNearest(lat, lng, 1, cats);
+            OptionalDouble closestKm = closest.isEmpty() ? OptionalDouble.empty()
+                    : OptionalDouble.of(HaversineUtil.distanceKm(lat, lng, closest.get(0).getLat(), closest.get(0).getLng()));
+            double r = pickRadius(steps, closestKm);
+            pool = supabaseService.fetchPlacesNear(lat, lng, r, cats, 200);
+        } catch (Exception ex) {
+            log.error("[fetchPlacesNear-again] failed: {} → fallback", ex.getMessage());
+            List<Place> all = supabaseService.fetchPlaces(null, null, 400, 0);
+            pool = filterByRadiusInMemory(all, lat, lng, maxOf(steps), cats);
+            double r = pickRadius(steps, kthDistanceKm(pool, lat, lng, 1));
+            pool = filterByRadiusInMemory(pool, lat, lng, r, cats);
         }
 
         Set<String> allExcluded = new HashSet<>(excludeIds);
@@ -190,18 +200,13 @@ public class ItineraryService {
 
         if (req.getTargetCategory() != null) {
             String targetCategory = req.getTargetCategory().trim();
-
-            if (targetCategory.equalsIgnoreCase("음식") || targetCategory.equalsIgnoreCase("식당")) {
-                targetCategory = "음식점";
-            } else if (targetCategory.equalsIgnoreCase("카페")) {
-                targetCategory = "카페";
-            } else if (targetCategory.equalsIgnoreCase("놀거리") || targetCategory.equalsIgnoreCase("액티비티")) {
-                targetCategory = "놀거리";
-            }
-
-            final String finalCat = targetCategory;
+            // 음식/식당 → 음식점 같은 동의어는 CategoryDictionary 코드로 이미 풀려 있다.
+            // 사전에 없는 값(UNKNOWN)/빈 값은 예전처럼 대소문자 무시 문자열로 비교한다
+            short target = CategoryDictionary.find(targetCategory);
             pool = pool.stream()
-                    .filter(p -> finalCat.equalsIgnoreCase(p.getCategory()))
+                    .filter(p -> target > CategoryDictionary.NONE
+                            ? p.categoryCode() == target
+                            : p.getCategory() != null && targetCategory.equalsIgnoreCase(p.getCategory().trim()))
                     .toList();
         }
 
@@ -226,14 +231,16 @@ public class ItineraryService {
         Integer finalCost    = (target.est_cost == null ? 0 : target.est_cost);
 
         if (req.new_place_id != null && !req.new_place_id.isBlank()) {
-            var oldPlace = supabaseService.fetchByPlaceId(target.place_id)
+            // ✅ 기존/새 장소를 쿼리 한 번으로
+            var both = supabaseService.fetchByPlaceIds(Arrays.asList(target.place_id, req.new_place_id));
+            var oldPlace = Optional.ofNullable(both.get(target.place_id))
                     .orElseThrow(() -> new IllegalArgumentException("기존 장소를 찾을 수 없습니다: " + target.place_id));
 
-            var newPlace = supabaseService.fetchByPlaceId(req.new_place_id)
+            var newPlace = Optional.ofNullable(both.get(req.new_place_id))
                     .orElseThrow(() -> new IllegalArgumentException("새로운 장소를 찾을 수 없습니다: " + req.new_place_id));
 
 
-            if (oldPlace.getCategory().equalsIgnoreCase(newPlace.getCategory())) {
+            if (oldPlace.categoryCode() != CategoryDictionary.NONE && oldPlace.categoryCode() == newPlace.categoryCode()) {
                 throw new ResponseStatusException(HttpStatus.CONFLICT, "동일한 카테고리의 장소로는 변경할 수 없습니다.");
             }
 
@@ -299,19 +306,38 @@ public class ItineraryService {
     }
 
 
+    /** 단계 순서대로 보며 k번째 후보 거리 이상인 첫 반경. 어느 단계도 못 채우면 마지막 단계 */
+    private double pickRadius(double[] steps, OptionalDouble kthKm) {
+        if (kthKm.isPresent()) {
+            for (double r : steps) {
+                if (r >= kthKm.getAsDouble()) return r;
+            }
+        }
+        return steps[steps.length - 1];
+    }
+
+    private double maxOf(double[] steps) {
+        return Arrays.stream(steps).max().orElse(0.0);
+    }
+
+    /** 거리순으로 정렬된 목록에서 k번째 후보까지의 거리 */
+    private OptionalDouble kthDistanceKm(List<Place> sortedByDistance, double lat, double lng, int k) {
+        if (k < 1 || sortedByDistance.size() < k) return OptionalDouble.empty();
+        Place p = sortedByDistance.get(k - 1);
+        return OptionalDouble.of(HaversineUtil.distanceKm(lat, lng, p.getLat(), p.getLng()));
+    }
+
     private List<Place> filterByRadiusInMemory(List<Place> src, double lat, double lng,
                                                double radiusKm, List<String> categories) {
         if (src == null || src.isEmpty()) return List.of();
-        boolean hasCat = (categories != null && !categories.isEmpty());
+        // DB 필터와 같게 동의어는 CategoryDictionary 코드로 비교
+        Set<Short> codes = new HashSet<>();
+        if (categories != null) for (String c : categories) codes.add(CategoryDictionary.find(c));
+        codes.remove(CategoryDictionary.NONE);
+        boolean hasCat = !codes.isEmpty();
         return src.stream()
                 .filter(p -> p.getLat() != null && p.getLng() != null)
-                .filter(p -> {
-                    if (hasCat) {
-                        String c = nvl(p.getCategory()).toLowerCase();
-                        return categories.contains(c);
-                    }
-                    return true;
-                })
+                .filter(p -> !hasCat || codes.contains(p.categoryCode()))
                 .filter(p -> HaversineUtil.distanceKm(lat, lng, p.getLat(), p.getLng()) <= radiusKm)
                 .sorted(Comparator.comparingDouble(p ->
                         HaversineUtil.distanceKm(lat, lng, p.getLat(), p.getLng())))
@@ -367,20 +393,14 @@ public class ItineraryService {
         return new PlanResponse(today(), round1(totalKm), totalCost, rationale, items);
     }
     private List<Place> applyCategoryLimits(List<Place> places) {
-        Map<String, Integer> limits = Map.of(
-                "카페", 2,
-                "놀거리", 2,
-                "음식점", 2
-        );
-
-        Map<String, Integer> counts = new HashMap<>();
+        Map<Short, Integer> counts = new HashMap<>();
         List<Place> result = new ArrayList<>();
 
         for (Place p : places) {
-            String cat = p.getCategory();
+            short cat = p.categoryCode();
             int used = counts.getOrDefault(cat, 0);
 
-            if (!limits.containsKey(cat) || used < limits.get(cat)) {
+            if (!isLimited(cat) || used < CATEGORY_LIMIT) {
                 result.add(p);
                 counts.put(cat, used + 1);
             }
@@ -398,11 +418,11 @@ public class ItineraryService {
             Place prev = result.get(i - 1);
             Place current = result.get(i);
 
-            if (prev.getCategory().equalsIgnoreCase(current.getCategory())) {
+            if (prev.categoryCode() == current.categoryCode()) {
 
                 int swapIndex = -1;
                 for (int j = i + 1; j < result.size(); j++) {
-                    if (!result.get(j).getCategory().equalsIgnoreCase(prev.getCategory())) {
+                    if (result.get(j).categoryCode() != prev.categoryCode()) {
                         swapIndex = j;
                         break;
                     }
@@ -420,8 +440,7 @@ public class ItineraryService {
     private PlanResponse toPlanResponseFromDraft(String date, Double userLat, Double userLng,
                                                  List<AdjustItemRequest.Item> itemsIn) {
         var ids = itemsIn.stream().map(i -> i.place_id).toList();
-        var placeById = supabaseService.fetchPlacesInOrder(ids).stream()
-                .collect(Collectors.toMap(Place::getPlaceId, p -> p, (a,b)->a, LinkedHashMap::new));
+        var placeById = supabaseService.fetchByPlaceIds(ids);
 
         List<PlanResponse.Item> out = new ArrayList<>();
         double totalKm = 0.0;
@@ -452,16 +471,10 @@ public class ItineraryService {
     }
 
     private List<Place> balanceCategories(List<Place> places) {
-        Map<String, Integer> limits = Map.of(
-                "카페", 2,
-                "놀거리", 2,
-                "음식점", 2
-        );
-
-        Map<String, Integer> counts = new HashMap<>();
-        Map<String, Queue<Place>> byCat = new LinkedHashMap<>();
+        Map<Short, Integer> counts = new HashMap<>();
+        Map<Short, Queue<Place>> byCat = new LinkedHashMap<>();
         for (Place p : places) {
-            byCat.computeIfAbsent(p.getCategory(), k -> new LinkedList<>()).add(p);
+            byCat.computeIfAbsent(p.categoryCode(), k -> new LinkedList<>()).add(p);
         }
 
         List<Place> result = new ArrayList<>();
@@ -470,11 +483,11 @@ public class ItineraryService {
         do {
             added = false;
             for (var entry : byCat.entrySet()) {
-                String cat = entry.getKey();
+                short cat = entry.getKey();
                 Queue<Place> q = entry.getValue();
                 if (!q.isEmpty()) {
                     int used = counts.getOrDefault(cat, 0);
-                    if (!limits.containsKey(cat) || used < limits.get(cat)) {
+                    if (!isLimited(cat) || used < CATEGORY_LIMIT) {
                         result.add(q.poll());
                         counts.put(cat, used + 1);
                         added = true;
@@ -489,6 +502,12 @@ public class ItineraryService {
         return result;
     }
 
+    /** 카페/놀거리/음식점(동의어 포함)은 일정 하나에 CATEGORY_LIMIT 곳까지 */
+    private static boolean isLimited(short category) {
+        return category == CategoryDictionary.FOOD || category == CategoryDictionary.CAFE
+                || category == CategoryDictionary.ACTIVITY;
+    }
+
     /* ===== GPT 응답 파싱 ===== */
     private record GItem(String time, String placeId) {}
     private List<GItem> parseGptItems(String planJson) {
@@ -0,0 +1,62 @@
+package com.example.domo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 자동완성 트라이를 PlaceStore 와 맞춰 둔다. 인덱스가 바뀌면 백그라운드에서 새 트라이를 만들어 통째로 교체한다.
+ * 아직 없으면 index() 가 null (PlaceStore 가 꺼져 있거나 로드 전).
+ */
+@Component
+public class PlaceAutocomplete {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaceAutocomplete.class);
+
+    private final PlaceStore store;
+    private final int topN;
+
+    private volatile PlaceAutocompleteIndex index;
+
+    public PlaceAutocomplete(PlaceStore store,
+                             @Value("${domo.places.autocomplete.top-n:10}") int topN) {
+        this.store = store;
+        this.topN = Math.max(1, topN);
+    }
+
+    @Scheduled(initialDelayString = "${domo.places.autocomplete.check-interval-ms:5000}",
+               fixedDelayString = "${domo.places.autocomplete.check-interval-ms:5000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("[autocomplete] rebuild failed: {} → 이전 트라이 유지", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        PlaceStore.Current c = store.current();
+        long v = c.version();
+        PlaceSpatialIndex idx = c.index();
+        PlaceAutocompleteIndex cur = index;
+        if (idx == null || (cur != null && cur.storeVersion() == v)) return;
+
+        long t0 = System.nanoTime();
+        PlaceAutocompleteIndex built = PlaceAutocompleteIndex.build(v, idx.columns(), topN);
+        index = built;
+        log.info("[autocomplete] {} entries / {} nodes for store v{} in {} ms",
+                built.entryCount(), built.nodeCount(), v, (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    /** 사용 가능한 트라이, 아직 없으면 null */
+    public PlaceAutocompleteIndex index() {
+        return index;
+    }
+
+    /** 한 번에 돌려줄 수 있는 최대 후보 수 */
+    public int topN() {
+        return topN;
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.domo.service;
+
+import com.example.domo.model.PlaceColumns;
+import com.example.domo.util.HangulJamo;
+import com.example.domo.util.IntSort;
+import com.example.domo.util.KoreanCollation;
+
+import java.util.*;
+
+/**
+ * 장소 이름/지역 자동완성용 읽기 전용 트라이 (배열로 펼친 radix trie).
+ *
+ * 키는 HangulJamo 로 푼 자모 문자열이다. 장소는 이름의 단어마다 그 단어부터 끝까지("스타벅스 강남점" →
+ * "스타벅스강남점", "강남점"), 지역은 시도 / 시군구 / 시도+시군구 로 넣는다.
+ * 노드마다 그 아래 완성 후보 중 totalScore 상위 topN 개를 미리 골라두므로,
+ * 조회는 트라이를 따라 내려간 뒤 그 노드의 후보 구간을 한 번 읽는 것으로 끝난다.
+ *
+ * 노드 i 의 자식은 firstChild[i] 부터 childCount[i] 개가 연속으로 있고, 들어오는 간선의 첫 글자 순이다.
+ */
+public final class PlaceAutocompleteIndex {
+
+    /** 키로 쓰는 자모 최대 길이 (한글 약 10~15 글자). 그보다 긴 입력은 이 길이에서 자른다 */
+    static final int MAX_KEY_LENGTH = 32;
+
+    private static final int[] NONE = new int[0];
+
+    private final long storeVersion;
+    private final int topN;
+
+    // 노드 (0 = 루트)
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] labelStart;     // 들어오는 간선 라벨 = labels[labelStart, labelStart + labelLength)
+    private final int[] labelLength;
+    private final char[] labels;
+    private final int[] topStart;       // 노드 i 의 후보 = top[topStart[i], topStart[i + 1])
+    private final int[] top;
+
+    // 후보 (place 또는 region)
+    private final String[] text;
+    private final String[] placeId;     // 지역 후보는 null
+    private final String[] sido;
+    private final String[] sigungu;
+    private final int[] score;
+
+    private PlaceAutocompleteIndex(long storeVersion, int topN, Trie t, Entries e) {
+        this.storeVersion = storeVersion;
+        this.topN = topN;
+        this.firstChild = Arrays.copyOf(t.firstChild, t.nodes);
+        this.childCount = Arrays.copyOf(t.childCount, t.nodes);
+        this.labelStart = Arrays.copyOf(t.labelStart, t.nodes);
+        this.labelLength = Arrays.copyOf(t.labelLength, t.nodes);
+        this.labels = Arrays.copyOf(t.labels, t.labelSize);
+        this.topStart = t.topStart;
+        this.top = t.top;
+        this.text = e.text.toArray(new String[0]);
+        this.placeId = e.placeId.toArray(new String[0]);
+        this.sido = e.sido.toArray(new String[0]);
+        this.sigungu = e.sigungu.toArray(new String[0]);
+        this.score = Arrays.copyOf(e.score, e.size());
+    }
+
+    /** prefix 로 시작하는 후보 번호 (점수 순, 최대 min(limit, topN) 개) */
+    public int[] complete(String prefix, int limit) {
+        String q = HangulJamo.decompose(prefix);
+        if (q.isEmpty() || limit <= 0) return NONE;
+        if (q.length() > MAX_KEY_LENGTH) q = q.substring(0, MAX_KEY_LENGTH);
+
+        int node = 0, i = 0;
+        while (i < q.length()) {
+            int child = findChild(node, q.charAt(i));
+            if (child < 0) return NONE;
+            int from = labelStart[child], to = from + labelLength[child];
+            for (int j = from; j < to && i < q.length(); j++, i++) {
+                if (labels[j] != q.charAt(i)) return NONE;
+            }
+            node = child;
+        }
+        int from = topStart[node];
+        int to = Math.min(topStart[node + 1], from + limit);
+        return Arrays.copyOfRange(top, from, to);
+    }
+
+    public boolean isRegion(int e) { return placeId[e] == null; }
+    public String text(int e) { return text[e]; }
+    public String placeId(int e) { return placeId[e]; }
+    public String sido(int e) { return sido[e]; }
+    public String sigungu(int e) { return sigungu[e]; }
+    public int score(int e) { return score[e]; }
+
+    public long storeVersion() { return storeVersion; }
+    public int topN() { return topN; }
+    public int nodeCount() { return firstChild.length; }
+    public int entryCount() { return text.length; }
+
+    private int findChild(int node, char c) {
+        int lo = firstChild[node], hi = lo + childCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char m = labels[labelStart[mid]];
+            if (m < c) lo = mid + 1;
+            else if (m > c) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    /** 장소 이름과 지역(시도, 시군구)으로 만든다. 지역 점수는 그 지역 장소 중 가장 높은 totalScore */
+    public static PlaceAutocompleteIndex build(long storeVersion, PlaceColumns cols, int topN) {
+        Entries e = new Entries();
+        List<String> keys = new ArrayList<>();
+        IntList keyEntry = new IntList();
+
+        Map<String, Integer> regionOf = new HashMap<>();
+        for (int r = 0; r < cols.size(); r++) {
+            String name = cols.name(r);
+            String sd = blankToNull(cols.sido(r)), sg = blankToNull(cols.sigungu(r));
+            int s = cols.totalScore(r);
+
+            if (name != null && !name.isBlank() && cols.placeId(r) != null) {
+                int id = e.add(name, cols.placeId(r), sd, sg, s);
+                String[] words = name.trim().split("\\s+");
+                for (int w = 0; w < words.length; w++) {
+                    addKey(keys, keyEntry, String.join("", Arrays.asList(words).subList(w, words.length)), id);
+                }
+            }
+            if (sd != null) {
+                region(e, keys, keyEntry, regionOf, sd, null, s);
+            }
+            if (sg != null) {
+                region(e, keys, keyEntry, regionOf, sd, sg, s);
+            }
+        }
+
+        // 후보 전체 순위 (점수 DESC, 이름) 를 한 번 정해두고 노드 후보 고를 때는 순위 번호만 비교한다
+        int entries = e.size();
+        int[] byRank = new int[entries];
+        for (int i = 0; i < entries; i++) byRank[i] = i;
+        byte[][] nameKeys = new byte[entries][];
+        for (int i = 0; i < entries; i++) nameKeys[i] = KoreanCollation.key(e.text.get(i));
+        IntSort.sort(byRank, 0, entries, (a, b) -> {
+            int c = Integer.compare(e.score[b], e.score[a]);
+            if (c == 0) c = KoreanCollation.compare(nameKeys[a], nameKeys[b]);
+            return (c != 0) ? c : Integer.compare(a, b);
+        });
+        int[] rank = new int[entries];
+        for (int i = 0; i < entries; i++) rank[byRank[i]] = i;
+
+        int k = keys.size();
+        int[] order = new int[k];
+        for (int i = 0; i < k; i++) order[i] = i;
+        IntSort.sort(order, 0, k, (a, b) -> keys.get(a).compareTo(keys.get(b)));
+        String[] sortedKeys = new String[k];
+        int[] sortedEntry = new int[k];
+        for (int i = 0; i < k; i++) {
+            sortedKeys[i] = keys.get(order[i]);
+            sortedEntry[i] = keyEntry.get(order[i]);
+        }
+
+        Trie t = new Trie(sortedKeys, sortedEntry, rank, Math.max(1, topN));
+        t.build();
+        return new PlaceAutocompleteIndex(storeVersion, Math.max(1, topN), t, e);
+    }
+
+    private static void region(Entries e, List<String> keys, IntList keyEntry, Map<String, Integer> regionOf,
+                               String sd, String sg, int score) {
+        String label = (sg == null) ? sd : (sd == null ? sg : sd + " " + sg);
+        Integer id = regionOf.get(label);
+        if (id != null) {
+            e.score[id] = Math.max(e.score[id], score);
+            return;
+        }
+        int nid = e.add(label, null, sd, sg, score);
+        regionOf.put(label, nid);
+        if (sg == null) {
+            addKey(keys, keyEntry, sd, nid);
+        } else {
+            addKey(keys, keyEntry, sg, nid);
+            if (sd != null) addKey(keys, keyEntry, sd + sg, nid);
+        }
+    }
+
+    private static void addKey(List<String> keys, IntList keyEntry, String raw, int entry) {
+        String key = HangulJamo.decompose(raw);
+        if (key.isEmpty()) return;
+        if (key.length() > MAX_KEY_LENGTH) key = key.substring(0, MAX_KEY_LENGTH);
+        keys.add(key);
+        keyEntry.add(entry);
+    }
+
+    private static String blankToNull(String s) {
+        return (s == null || s.isBlank()) ? null : s;
+    }
+
+    /** 정렬된 키로 radix trie 를 만들고 노드마다 상위 topN 후보를 고른다 */
+    private static final class Trie {
+        final String[] keys;
+        final int[] keyEntry;
+        final int[] rank;
+        final int topN;
+
+        int nodes;
+        int[] firstChild = new int[16], childCount = new int[16], labelStart = new int[16], labelLength = new int[16];
+        char[] labels = new char[64];
+        int labelSize;
+        int[][] topOf = new int[16][];
+
+        int[] topStart;
+        int[] top;
+
+        Trie(String[] keys, int[] keyEntry, int[] rank, int topN) {
+            this.keys = keys;
+            this.keyEntry = keyEntry;
+            this.rank = rank;
+            this.topN = topN;
+        }
+
+        void build() {
+            int root = newNode();
+            fill(root, 0, keys.length, 0);
+
+            topStart = new int[nodes + 1];
+            int total = 0;
+            for (int i = 0; i < nodes; i++) {
+                topStart[i] = total;
+                total += topOf[i].length;
+            }
+            topStart[nodes] = total;
+            top = new int[total];
+            for (int i = 0; i < nodes; i++) System.arraycopy(topOf[i], 0, top, topStart[i], topOf[i].length);
+            topOf = null;
+        }
+
+        /** keys[lo, hi) 는 모두 같은 depth 글자 접두사를 가진다 (= node 까지의 경로) */
+        private void fill(int node, int lo, int hi, int depth) {
+            IntList candidates = new IntList();
+            while (lo < hi && keys[lo].length() == depth) candidates.add(keyEntry[lo++]);   // 여기서 끝나는 키
+
+            // 첫 글자가 같은 구간마다 자식 하나, 자식 번호는 연속으로 먼저 잡는다
+            int groups = 0;
+            for (int i = lo; i < hi; i = groupEnd(i, hi, depth)) groups++;
+            int first = nodes;
+            for (int g = 0; g < groups; g++) newNode();
+            firstChild[node] = first;
+            childCount[node] = groups;
+
+            int child = first;
+            for (int i = lo; i < hi; child++) {
+                int end = groupEnd(i, hi, depth);
+                int lcp = commonPrefix(keys[i], keys[end - 1], depth);
+                labelStart[child] = labelSize;
+                labelLength[child] = lcp - depth;
+                appendLabel(keys[i], depth, lcp);
+                fill(child, i, end, lcp);
+                for (int e : topOf[child]) candidates.add(e);
+                i = end;
+            }
+            topOf[node] = best(candidates);
+        }
+
+        private int groupEnd(int i, int hi, int depth) {
+            char c = keys[i].charAt(depth);
+            int j = i + 1;
+            while (j < hi && keys[j].charAt(depth) == c) j++;
+            return j;
+        }
+
+        /** 정렬된 구간의 처음/끝 키 공통 접두사 길이 = 구간 전체의 공통 접두사 길이 */
+        private static int commonPrefix(String a, String b, int from) {
+            int n = Math.min(a.length(), b.length());
+            int i = from;
+            while (i < n && a.charAt(i) == b.charAt(i)) i++;
+            return i;
+        }
+
+        /** 중복을 뺀 순위 상위 topN 개 */
+        private int[] best(IntList candidates) {
+            int[] c = candidates.toArray();
+            IntSort.sort(c, 0, c.length, (a, b) -> Integer.compare(rank[a], rank[b]));
+            int[] out = new int[Math.min(topN, c.length)];
+            int n = 0;
+            for (int i = 0; i < c.length && n < out.length; i++) {
+                if (n > 0 && out[n - 1] == c[i]) continue;
+                out[n++] = c[i];
+            }
+            return (n == out.length) ? out : Arrays.copyOf(out, n);
+        }
+
+        private int newNode() {
+            if (nodes == firstChild.length) {
+                int cap = nodes * 2;
+                firstChild = Arrays.copyOf(firstChild, cap);
+                childCount = Arrays.copyOf(childCount, cap);
+                labelStart = Arrays.copyOf(labelStart, cap);
+                labelLength = Arrays.copyOf(labelLength, cap);
+                topOf = Arrays.copyOf(topOf, cap);
+            }
+            return nodes++;
+        }
+
+        private void appendLabel(String key, int from, int to) {
+            int need = labelSize + (to - from);
+            if (need > labels.length) labels = Arrays.copyOf(labels, Math.max(need, labels.length * 2));
+            key.getChars(from, to, labels, labelSize);
+            labelSize = need;
+        }
+    }
+
+    private static final class Entries {
+        final List<String> text = new ArrayList<>();
+        final List<String> placeId = new ArrayList<>();
+        final List<String> sido = new ArrayList<>();
+        final List<String> sigungu = new ArrayList<>();
+        int[] score = new int[16];
+
+        int add(String t, String id, String sd, String sg, int s) {
+            int e = text.size();
+            text.add(t);
+            placeId.add(id);
+            sido.add(sd);
+            sigungu.add(sg);
+            if (e == score.length) score = Arrays.copyOf(score, e * 2);
+            score[e] = s;
+            return e;
+        }
+
+        int size() { return text.size(); }
+    }
+
+    private static final class IntList {
+        private int[] a = new int[8];
+        private int n;
+
+        void add(int v) {
+            if (n == a.length) a = Arrays.copyOf(a, n * 2);
+            a[n++] = v;
+        }
+
+        int get(int i) { return a[i]; }
+
+        int[] toArray() { return Arrays.copyOf(a, n); }
+    }
+}
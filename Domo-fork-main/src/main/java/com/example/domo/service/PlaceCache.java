@@ -0,0 +1,176 @@
+package com.example.domo.service;
+
+import com.example.domo.model.Place;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * place_id → Place 읽기 캐시 (fetchByPlaceId 앞단).
+ * 키 해시로 나눈 구역(stripe)마다 접근 순서 LinkedHashMap 을 두어 구역 단위로만 잠그고,
+ * 구역이 가득 차면 가장 오래 안 쓴 항목부터 내보낸다. 항목마다 만료 시각이 있고,
+ * 없는 place_id 도 짧은 TTL 로 기억해서(negative cache) 같은 잘못된 코드가 DB 까지 가지 않게 한다.
+ *
+ * Place 는 가변 객체라 넣을 때/꺼낼 때 모두 복사본을 쓴다.
+ */
+@Component
+public class PlaceCache {
+
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public PlaceCache(@Value("${domo.places.cache.max-size:10000}") int maxSize,
+                      @Value("${domo.places.cache.ttl-ms:600000}") long ttlMs,
+                      @Value("${domo.places.cache.negative-ttl-ms:60000}") long negativeTtlMs) {
+        int perStripe = Math.max(1, maxSize / STRIPES);
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe(perStripe);
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.negativeTtlNanos = negativeTtlMs * 1_000_000L;
+    }
+
+    /** 캐시에 있으면 그 값, 없거나 만료됐으면 loader 로 읽어 넣는다(loader 예외는 캐시하지 않는다). */
+    public Optional<Place> get(String placeId, Function<String, Optional<Place>> loader) {
+        long now = System.nanoTime();
+        Entry e = lookup(placeId, now);
+        if (e != null) {
+            hits.increment();
+            return copy(e.value);
+        }
+
+        // 같은 키를 동시에 놓치면 둘 다 읽을 수 있지만 결과는 같으므로 DB 잠금 대기보다 낫다
+        misses.increment();
+        Optional<Place> loaded = loader.apply(placeId);
+        put(placeId, loaded, now);
+        return copy(loaded);
+    }
+
+    /**
+     * 여러 id 를 한 번에. 캐시에 없는 id 만 모아 bulkLoader 를 한 번 호출하고,
+     * bulkLoader 결과에 없는 id 는 negative 로 기억한다. 반환 맵에는 있는 장소만 담긴다.
+     */
+    public Map<String, Place> getAll(Collection<String> placeIds,
+                                     Function<List<String>, Map<String, Place>> bulkLoader) {
+        long now = System.nanoTime();
+        Map<String, Place> out = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : placeIds) {
+            Entry e = lookup(id, now);
+            if (e == null) {
+                missing.add(id);
+            } else {
+                hits.increment();
+                e.value.ifPresent(p -> out.put(id, p.copy()));
+            }
+        }
+        if (missing.isEmpty()) return out;
+
+        misses.add(missing.size());
+        Map<String, Place> loaded = bulkLoader.apply(missing);
+        for (String id : missing) {
+            Optional<Place> v = Optional.ofNullable(loaded.get(id));
+            put(id, v, now);
+            v.ifPresent(p -> out.put(id, p.copy()));
+        }
+        return out;
+    }
+
+    private Entry lookup(String placeId, long now) {
+        Stripe s = stripeOf(placeId);
+        synchronized (s) {
+            Entry e = s.get(placeId);
+            if (e != null && now - e.expiresAt >= 0) {
+                s.remove(placeId);
+                expirations.increment();
+                return null;
+            }
+            return e;
+        }
+    }
+
+    private void put(String placeId, Optional<Place> value, long now) {
+        Entry fresh = new Entry(copy(value), now + (value.isPresent() ? ttlNanos : negativeTtlNanos));
+        Stripe s = stripeOf(placeId);
+        synchronized (s) {
+            s.put(placeId, fresh);
+        }
+    }
+
+    public void invalidate(String placeId) {
+        Stripe s = stripeOf(placeId);
+        synchronized (s) {
+            s.remove(placeId);
+        }
+    }
+
+    public void clear() {
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                s.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int n = 0;
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                n += s.size();
+            }
+        }
+        return n;
+    }
+
+    public Map<String, Object> stats() {
+        var m = new LinkedHashMap<String, Object>();
+        m.put("size", size());
+        m.put("hits", hits.sum());
+        m.put("misses", misses.sum());
+        m.put("evictions", evictions.sum());
+        m.put("expirations", expirations.sum());
+        return m;
+    }
+
+    private Stripe stripeOf(String key) {
+        int h = (key == null) ? 0 : key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static Optional<Place> copy(Optional<Place> v) {
+        return v.map(Place::copy);
+    }
+
+    private record Entry(Optional<Place> value, long expiresAt) {}
+
+    private final class Stripe extends LinkedHashMap<String, Entry> {
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);   // 접근 순서 → 가장 오래 안 쓴 항목이 맨 앞
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() <= capacity) return false;
+            evictions.increment();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.domo.service;
+
+import com.example.domo.model.Place;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * places 변경분. upserts 는 현재 테이블 상태 그대로이므로 deletedIds 를 먼저, upserts 를 나중에 적용한다.
+ * watermark 는 DB 시계 기준으로 이번에 본 가장 늦은 변경 시각(다음 조회의 기준점).
+ */
+public record PlaceChangeSet(List<Place> upserts, List<String> deletedIds, Instant watermark) {
+
+    public boolean isEmpty() {
+        return upserts.isEmpty() && deletedIds.isEmpty();
+    }
+}
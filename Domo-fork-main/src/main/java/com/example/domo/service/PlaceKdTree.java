@@ -0,0 +1,203 @@
+package com.example.domo.service;
+
+import com.example.domo.model.PlaceColumns;
+
+import java.util.function.IntPredicate;
+
+/**
+ * 장소 좌표를 단위 구면 위 3차원 점(x, y, z)으로 바꿔 담은 정적 KD-트리.
+ * 현(chord) 거리는 대원 거리와 단조 관계라서, 현 거리 기준 k-최근접이 곧 실제 거리 기준 k-최근접이다.
+ *
+ * 트리는 배열 하나에 암묵적으로 들어있다: 구간 [lo, hi) 의 중앙 mid 가 노드이고
+ * 왼쪽 [lo, mid), 오른쪽 [mid + 1, hi) 가 자식이다. 분할 축은 구간에서 가장 넓게 퍼진 축.
+ */
+final class PlaceKdTree {
+
+    private static final int LEAF = 8;
+
+    private final int[] rows;      // 트리 순서로 재배열된 인덱스 행 번호
+    private final double[] x, y, z;
+    private final byte[] axis;     // 노드(mid 위치)별 분할 축
+
+    /** validRows: 좌표가 있는 행 번호들 */
+    PlaceKdTree(PlaceColumns cols, int[] validRows) {
+        int n = validRows.length;
+        rows = validRows.clone();
+        x = new double[n];
+        y = new double[n];
+        z = new double[n];
+        axis = new byte[n];
+        for (int i = 0; i < n; i++) {
+            double la = Math.toRadians(cols.lat(rows[i])), lo = Math.toRadians(cols.lng(rows[i]));
+            x[i] = Math.cos(la) * Math.cos(lo);
+            y[i] = Math.cos(la) * Math.sin(lo);
+            z[i] = Math.sin(la);
+        }
+        build(0, n);
+    }
+
+    int size() { return rows.length; }
+
+    /**
+     * 조건(accept)을 만족하는 행 중 (lat, lng) 에서 가까운 순서로 최대 k 개.
+     * 거리가 같으면 행 번호가 작은(랭킹이 높은) 쪽이 먼저다.
+     */
+    int[] nearest(double lat, double lng, int k, IntPredicate accept) {
+        if (k <= 0 || rows.length == 0) return new int[0];
+        double la = Math.toRadians(lat), lo = Math.toRadians(lng);
+        double qx = Math.cos(la) * Math.cos(lo), qy = Math.cos(la) * Math.sin(lo), qz = Math.sin(la);
+
+        Heap heap = new Heap(Math.min(k, rows.length));
+        search(0, rows.length, qx, qy, qz, accept, heap);
+        return heap.drainSorted();
+    }
+
+    private void search(int lo, int hi, double qx, double qy, double qz, IntPredicate accept, Heap heap) {
+        if (hi - lo <= LEAF) {
+            for (int i = lo; i < hi; i++) offer(i, qx, qy, qz, accept, heap);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        offer(mid, qx, qy, qz, accept, heap);
+
+        double diff = coord(axis[mid], qx, qy, qz) - coord(axis[mid], x[mid], y[mid], z[mid]);
+        if (diff < 0) {
+            search(lo, mid, qx, qy, qz, accept, heap);
+            if (!heap.full() || diff * diff <= heap.worst()) search(mid + 1, hi, qx, qy, qz, accept, heap);
+        } else {
+            search(mid + 1, hi, qx, qy, qz, accept, heap);
+            if (!heap.full() || diff * diff <= heap.worst()) search(lo, mid, qx, qy, qz, accept, heap);
+        }
+    }
+
+    private void offer(int i, double qx, double qy, double qz, IntPredicate accept, Heap heap) {
+        if (accept != null && !accept.test(rows[i])) return;
+        double dx = x[i] - qx, dy = y[i] - qy, dz = z[i] - qz;
+        heap.offer(dx * dx + dy * dy + dz * dz, rows[i]);
+    }
+
+    /* ---------------- build ---------------- */
+
+    private void build(int lo, int hi) {
+        if (hi - lo <= LEAF) return;
+        byte ax = widestAxis(lo, hi);
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, ax);
+        axis[mid] = ax;
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    private byte widestAxis(int lo, int hi) {
+        double[] min = { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE };
+        double[] max = { -Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE };
+        for (int i = lo; i < hi; i++) {
+            min[0] = Math.min(min[0], x[i]); max[0] = Math.max(max[0], x[i]);
+            min[1] = Math.min(min[1], y[i]); max[1] = Math.max(max[1], y[i]);
+            min[2] = Math.min(min[2], z[i]); max[2] = Math.max(max[2], z[i]);
+        }
+        byte best = 0;
+        for (byte a = 1; a < 3; a++) {
+            if (max[a] - min[a] > max[best] - min[best]) best = a;
+        }
+        return best;
+    }
+
+    /** quickselect: k 번째 위치에 축 기준 k 번째 값이 오도록 [l, r] 구간을 부분 정렬 */
+    private void select(int l, int r, int k, byte ax) {
+        while (r > l) {
+            double pivot = value(ax, (l + r) >>> 1);
+            int i = l, j = r;
+            while (i <= j) {
+                while (value(ax, i) < pivot) i++;
+                while (value(ax, j) > pivot) j--;
+                if (i <= j) swap(i++, j--);
+            }
+            if (k <= j) r = j;
+            else if (k >= i) l = i;
+            else return;
+        }
+    }
+
+    private double value(byte ax, int i) { return coord(ax, x[i], y[i], z[i]); }
+
+    private static double coord(byte ax, double px, double py, double pz) {
+        return ax == 0 ? px : (ax == 1 ? py : pz);
+    }
+
+    private void swap(int a, int b) {
+        int r = rows[a]; rows[a] = rows[b]; rows[b] = r;
+        double t = x[a]; x[a] = x[b]; x[b] = t;
+        t = y[a]; y[a] = y[b]; y[b] = t;
+        t = z[a]; z[a] = z[b]; z[b] = t;
+    }
+
+    /* ---------------- bounded max-heap (거리, 행) ---------------- */
+
+    private static final class Heap {
+        private final double[] d;
+        private final int[] r;
+        private int size;
+
+        Heap(int capacity) {
+            d = new double[capacity];
+            r = new int[capacity];
+        }
+
+        boolean full() { return size == d.length; }
+
+        double worst() { return d[0]; }
+
+        void offer(double dist, int row) {
+            if (size < d.length) {
+                d[size] = dist; r[size] = row;
+                up(size++);
+            } else if (less(dist, row, d[0], r[0])) {
+                d[0] = dist; r[0] = row;
+                down(0);
+            }
+        }
+
+        /** 가까운 순으로 정렬된 행 번호 */
+        int[] drainSorted() {
+            int n = size;
+            int[] out = new int[n];
+            for (int i = n - 1; i >= 0; i--) {
+                out[i] = r[0];
+                size--;
+                d[0] = d[size]; r[0] = r[size];
+                down(0);
+            }
+            return out;
+        }
+
+        private static boolean less(double d1, int r1, double d2, int r2) {
+            return d1 < d2 || (d1 == d2 && r1 < r2);
+        }
+
+        private void up(int i) {
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (!less(d[p], r[p], d[i], r[i])) break;
+                swapAt(i, p);
+                i = p;
+            }
+        }
+
+        private void down(int i) {
+            while (true) {
+                int l = 2 * i + 1, rr = l + 1, m = i;
+                if (l < size && less(d[m], r[m], d[l], r[l])) m = l;
+                if (rr < size && less(d[m], r[m], d[rr], r[rr])) m = rr;
+                if (m == i) return;
+                swapAt(i, m);
+                i = m;
+            }
+        }
+
+        private void swapAt(int a, int b) {
+            double t = d[a]; d[a] = d[b]; d[b] = t;
+            int u = r[a]; r[a] = r[b]; r[b] = u;
+        }
+    }
+}
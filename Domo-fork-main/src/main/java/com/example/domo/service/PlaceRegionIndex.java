@@ -0,0 +1,127 @@
+package com.example.domo.service;
+
+import com.example.domo.model.PlaceColumns;
+import com.example.domo.util.IntSort;
+import com.example.domo.util.KoreanCollation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * (sido, sigungu) 별 리더보드. 지역마다 행 번호를 혜택순/인기순으로 미리 정렬해둬서
+ * /api/benefits 페이지는 배열 구간, countPlaces 는 배열 길이가 된다.
+ *
+ * 지역 키는 countPlaces 조건과 같다: 빈 값은 "전체"라서 행 하나가
+ * (전체, 전체) / (sido, 전체) / (전체, sigungu) / (sido, sigungu) 네 곳에 들어간다.
+ * 읽기 전용이고, 데이터가 바뀌면 PlaceRegions 가 새로 만들어 통째로 교체한다.
+ */
+public final class PlaceRegionIndex {
+
+    public enum Order { BENEFIT, POPULAR }
+
+    private record Region(int[] byBenefit, int[] byPopular) {}
+
+    private static final int[] NONE = new int[0];
+
+    private final long storeVersion;
+    private final PlaceColumns cols;
+    private final int[] popularity;       // 행 번호 → popularity
+    private final Map<String, Region> regions;
+
+    private PlaceRegionIndex(long storeVersion, PlaceColumns cols, int[] popularity, Map<String, Region> regions) {
+        this.storeVersion = storeVersion;
+        this.cols = cols;
+        this.popularity = popularity;
+        this.regions = regions;
+    }
+
+    /**
+     * 정렬은 /api/benefits 와 같다.
+     * 혜택순 = 할인율 DESC, popularity DESC, 이름 / 인기순 = popularity DESC, 할인율 DESC, 이름 (마지막은 행 번호)
+     * 전체 행 정렬은 sorter(ScoringPool)가 맡아 큰 카탈로그에서는 여러 코어로 나눠 돈다 (순서는 같다).
+     */
+    public static PlaceRegionIndex build(long storeVersion, PlaceColumns cols, int[] popularity, ScoringPool sorter) {
+        int n = cols.size();
+        IntSort.IntComparator byName = (a, b) -> KoreanCollation.compare(cols.nameKey(a), cols.nameKey(b));
+        IntSort.IntComparator benefit = (a, b) -> {
+            int c = Integer.compare(cols.discount(b), cols.discount(a));
+            if (c == 0) c = Integer.compare(popularity[b], popularity[a]);
+            if (c == 0) c = byName.compare(a, b);
+            return (c != 0) ? c : Integer.compare(a, b);
+        };
+        IntSort.IntComparator popular = (a, b) -> {
+            int c = Integer.compare(popularity[b], popularity[a]);
+            if (c == 0) c = Integer.compare(cols.discount(b), cols.discount(a));
+            if (c == 0) c = byName.compare(a, b);
+            return (c != 0) ? c : Integer.compare(a, b);
+        };
+
+        // 전체를 한 번씩 정렬한 뒤 그 순서대로 지역별로 나눠 담으면 지역 목록도 정렬돼 있다
+        int[] benefitOrder = identity(n);
+        int[] popularOrder = identity(n);
+        sorter.sort(benefitOrder, 0, n, benefit);
+        sorter.sort(popularOrder, 0, n, popular);
+
+        Map<String, int[]> counts = new HashMap<>();
+        for (int r = 0; r < n; r++) {
+            for (String key : keysOf(cols, r)) counts.computeIfAbsent(key, k -> new int[1])[0]++;
+        }
+        Map<String, Region> regions = new HashMap<>(counts.size() * 4 / 3 + 1);
+        counts.forEach((key, c) -> regions.put(key, new Region(new int[c[0]], new int[c[0]])));
+
+        Map<String, int[]> fillB = new HashMap<>(), fillP = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            int rb = benefitOrder[i];
+            for (String key : keysOf(cols, rb)) regions.get(key).byBenefit()[fillB.computeIfAbsent(key, k -> new int[1])[0]++] = rb;
+            int rp = popularOrder[i];
+            for (String key : keysOf(cols, rp)) regions.get(key).byPopular()[fillP.computeIfAbsent(key, k -> new int[1])[0]++] = rp;
+        }
+        return new PlaceRegionIndex(storeVersion, cols, popularity, regions);
+    }
+
+    /** countPlaces(sido, sigungu) 와 같은 값 */
+    public int count(String sido, String sigungu) {
+        Region region = regions.get(key(sido, sigungu));
+        return region == null ? 0 : region.byBenefit().length;
+    }
+
+    /** 해당 지역 order 순서의 [offset, offset + limit) 행 번호 */
+    public int[] slice(String sido, String sigungu, Order order, int offset, int limit) {
+        Region region = regions.get(key(sido, sigungu));
+        if (region == null) return NONE;
+        int[] all = (order == Order.POPULAR) ? region.byPopular() : region.byBenefit();
+        int from = Math.min(Math.max(0, offset), all.length);
+        int to = (int) Math.min((long) from + Math.max(0, limit), all.length);
+        int[] out = new int[to - from];
+        System.arraycopy(all, from, out, 0, out.length);
+        return out;
+    }
+
+    public PlaceColumns columns() { return cols; }
+
+    public int popularity(int r) { return popularity[r]; }
+
+    public long storeVersion() { return storeVersion; }
+
+    public int regionCount() { return regions.size(); }
+
+    private static String[] keysOf(PlaceColumns cols, int r) {
+        String sido = cols.sido(r), sigungu = cols.sigungu(r);
+        boolean hasSido = sido != null && !sido.isEmpty();
+        boolean hasSigungu = sigungu != null && !sigungu.isEmpty();
+        if (hasSido && hasSigungu) return new String[]{ key(null, null), key(sido, null), key(null, sigungu), key(sido, sigungu) };
+        if (hasSido) return new String[]{ key(null, null), key(sido, null) };
+        if (hasSigungu) return new String[]{ key(null, null), key(null, sigungu) };
+        return new String[]{ key(null, null) };
+    }
+
+    private static String key(String sido, String sigungu) {
+        return (sido == null ? "" : sido) + '\u0001' + (sigungu == null ? "" : sigungu);
+    }
+
+    private static int[] identity(int n) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) a[i] = i;
+        return a;
+    }
+}
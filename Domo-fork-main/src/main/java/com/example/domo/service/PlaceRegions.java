@@ -0,0 +1,53 @@
+package com.example.domo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * PlaceRegionIndex 를 들고 있다가 전체 popularity 가 새로 계산되면(= PlaceStore 데이터가 바뀌면)
+ * 백그라운드에서 다시 만들어 교체한다. 아직 없으면 index() 가 null 이고 호출자는 DB 경로를 쓴다.
+ */
+@Component
+public class PlaceRegions {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaceRegions.class);
+
+    private final PopularitySnapshot popularity;
+    private final ScoringPool scoringPool;
+
+    private volatile PlaceRegionIndex index;
+
+    public PlaceRegions(PopularitySnapshot popularity, ScoringPool scoringPool) {
+        this.popularity = popularity;
+        this.scoringPool = scoringPool;
+    }
+
+    @Scheduled(initialDelayString = "${domo.places.popularity.check-interval-ms:5000}",
+               fixedDelayString = "${domo.places.popularity.check-interval-ms:5000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("[regions] rebuild failed: {} → 이전 인덱스 유지", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        PopularitySnapshot.Computed c = popularity.current();
+        PlaceRegionIndex cur = index;
+        if (c == null || (cur != null && cur.storeVersion() == c.storeVersion())) return;
+
+        long t0 = System.nanoTime();
+        PlaceRegionIndex built = PlaceRegionIndex.build(c.storeVersion(), c.columns(), c.popularity(), scoringPool);
+        index = built;
+        log.info("[regions] {} regions over {} places for store v{} in {} ms",
+                built.regionCount(), c.columns().size(), c.storeVersion(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    /** 사용 가능한 인덱스, 아직 없으면 null */
+    public PlaceRegionIndex index() {
+        return index;
+    }
+}
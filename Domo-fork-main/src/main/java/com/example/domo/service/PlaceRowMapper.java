@@ -6,73 +6,79 @@ import org.springframework.jdbc.core.RowMapper;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+/**
+ * places 행 → Place.
+ * 컬럼 위치는 ResultSet 마다 첫 행에서 한 번만 찾고, 이후에는 위치로 기본형을 바로 읽는다(wasNull 로 NULL 판정).
+ * 위치를 기억하므로 인스턴스는 쿼리 하나에서만 쓴다 — SupabaseServiceImpl.placeRows() 가 매번 새로 만든다.
+ *
+ * 값 규칙은 예전과 같다: 없는 컬럼/NULL 문자열은 null, 숫자는 0 (lat/lng 도 0.0), totalscore 는 반올림.
+ */
 public class PlaceRowMapper implements RowMapper<Place> {
 
+    private ResultSet resolvedFor;
+    private int placeId, name, category, address, lat, lng, sido, sigungu, benefit, discount, totalScore;
+
     @Override
     public Place mapRow(ResultSet rs, int rowNum) throws SQLException {
-        Place p = new Place();
+        if (rs != resolvedFor) resolve(rs);
 
-        p.setPlaceId(safeGetString(rs, "place_id"));
-        p.setName(safeGetString(rs, "name"));
-        p.setCategory(safeGetString(rs, "category"));
-        p.setAddress(safeGetString(rs, "address"));
+        Place p = new Place();
 
-        p.setLat(safeGetDouble(rs, "lat"));
-        p.setLng(safeGetDouble(rs, "lng"));
+        p.setPlaceId(getString(rs, placeId));
+        p.setName(getString(rs, name));
+        p.setCategory(getString(rs, category));
+        p.setAddress(getString(rs, address));
 
-        p.setSido(safeGetString(rs, "sido"));
-        p.setSigungu(safeGetString(rs, "sigungu"));
+        p.setLat(getDouble(rs, lat));
+        p.setLng(getDouble(rs, lng));
 
-        p.setBenefit(safeGetString(rs, "benefit"));
+        p.setSido(getString(rs, sido));
+        p.setSigungu(getString(rs, sigungu));
 
-        p.setDiscountPercent(safeGetInt(rs, "discountpercent"));
+        p.setBenefit(getString(rs, benefit));
 
-        int totalScore = (int) Math.round(safeGetDouble(rs, "totalscore"));
-        p.setTotalScore(totalScore);
+        // 키셋 정렬 키(SupabaseServiceImpl.RANK_KEY)와 같은 정수로: 할인율은 버림, 점수는 반올림
+        p.setDiscountPercent((int) getDouble(rs, discount));
+        p.setTotalScore((int) Math.round(getDouble(rs, totalScore)));
 
         p.setPopularity(0);
 
         return p;
     }
 
-    private String safeGetString(ResultSet rs, String col) {
-        try {
-            String v = rs.getString(col);
-            return (v == null) ? null : v;
-        } catch (SQLException ignore) {
-            return null;
-        }
+    private void resolve(ResultSet rs) {
+        placeId = find(rs, "place_id");
+        name = find(rs, "name");
+        category = find(rs, "category");
+        address = find(rs, "address");
+        lat = find(rs, "lat");
+        lng = find(rs, "lng");
+        sido = find(rs, "sido");
+        sigungu = find(rs, "sigungu");
+        benefit = find(rs, "benefit");
+        discount = find(rs, "discountpercent");
+        totalScore = find(rs, "totalscore");
+        resolvedFor = rs;
     }
 
-    private int safeGetInt(ResultSet rs, String col) {
+    /** 컬럼 위치, 없으면 0 */
+    private static int find(ResultSet rs, String col) {
         try {
-            Object obj = rs.getObject(col);
-            if (obj == null) return 0;
-            if (obj instanceof Number) return ((Number) obj).intValue();
-            try {
-                String s = String.valueOf(obj).trim();
-                if (s.isEmpty()) return 0;
-                return Integer.parseInt(s);
-            } catch (Exception e) {
-                return 0;
-            }
+            return rs.findColumn(col);
         } catch (SQLException ignore) {
             return 0;
         }
     }
 
-    private double safeGetDouble(ResultSet rs, String col) {
+    private static String getString(ResultSet rs, int idx) throws SQLException {
+        return idx == 0 ? null : rs.getString(idx);
+    }
+
+    private static double getDouble(ResultSet rs, int idx) {
+        if (idx == 0) return 0.0;
         try {
-            Object obj = rs.getObject(col);
-            if (obj == null) return 0.0;
-            if (obj instanceof Number) return ((Number) obj).doubleValue();
-            try {
-                String s = String.valueOf(obj).trim();
-                if (s.isEmpty()) return 0.0;
-                return Double.parseDouble(s);
-            } catch (Exception e) {
-                return 0.0;
-            }
+            double v = rs.getDouble(idx);
+            return rs.wasNull() ? 0.0 : v;
         } catch (SQLException ignore) {
             return 0.0;
         }
@@ -0,0 +1,55 @@
+package com.example.domo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 이름/주소 검색용 PlaceSearchIndex 를 PlaceStore 와 맞춰 둔다.
+ * 인덱스가 바뀌면 백그라운드에서 바뀐 장소만 다시 색인한 새 스냅샷으로 교체한다.
+ * 아직 없으면 index() 가 null (PlaceStore 가 꺼져 있거나 로드 전).
+ */
+@Component
+public class PlaceSearch {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaceSearch.class);
+
+    private final PlaceStore store;
+    private final PlaceSearchIndex.Builder builder = new PlaceSearchIndex.Builder();
+
+    private volatile PlaceSearchIndex index;
+
+    public PlaceSearch(PlaceStore store) {
+        this.store = store;
+    }
+
+    @Scheduled(initialDelayString = "${domo.places.search.check-interval-ms:5000}",
+               fixedDelayString = "${domo.places.search.check-interval-ms:5000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("[search] refresh failed: {} → 이전 인덱스 유지", e.getMessage());
+        }
+    }
+
+    public synchronized void refresh() {
+        PlaceStore.Current c = store.current();
+        long v = c.version();
+        PlaceSpatialIndex idx = c.index();
+        PlaceSearchIndex cur = index;
+        if (idx == null || (cur != null && cur.storeVersion() == v)) return;
+
+        long t0 = System.nanoTime();
+        PlaceSearchIndex built = builder.apply(v, idx.columns());
+        index = built;
+        log.info("[search] re-indexed {} of {} places ({} grams) for store v{} in {} ms",
+                builder.touched(), built.size(), built.gramCount(), v, (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    /** 사용 가능한 인덱스, 아직 없으면 null */
+    public PlaceSearchIndex index() {
+        return index;
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.domo.service;
+
+import com.example.domo.model.PlaceColumns;
+import com.example.domo.util.KoreanCollation;
+import com.example.domo.util.TopK;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * 장소 이름/주소의 글자 2-gram 역색인 (읽기 전용 스냅샷).
+ *
+ * 문서(doc) 번호는 place_id 마다 한 번 붙으면 바뀌지 않고, 게시 목록(posting)은 doc 번호 오름차순 int[] 이다.
+ * 검색어의 2-gram 게시 목록을 짧은 것부터 교집합한 뒤 원문 포함 여부로 한 번 더 확인하고,
+ * (이름 앞부분 일치 > 이름 포함 > 주소 포함, totalScore, 할인율, 이름, 행 번호) 순으로 상위 limit 개만 고른다.
+ *
+ * 스냅샷은 Builder 가 PlaceStore 버전마다 바뀐 행만 다시 잘라 만든다. 바뀌지 않은 게시 목록 배열은 이전 스냅샷과 공유한다.
+ */
+public final class PlaceSearchIndex {
+
+    /** 검색어 최소 길이 (정규화 후, 2-gram 하나 이상) */
+    public static final int MIN_QUERY_LENGTH = 2;
+
+    private static final int[] NONE = new int[0];
+
+    private final long storeVersion;
+    private final PlaceColumns cols;
+    private final int[] rowOfDoc;          // doc → cols 행 번호, 지워진 doc 은 -1
+    private final String[] names;          // doc → 정규화한 이름
+    private final String[] addresses;      // doc → 정규화한 주소
+    private final Map<Integer, int[]> postings;
+    private final int docs;
+
+    private PlaceSearchIndex(long storeVersion, PlaceColumns cols, int[] rowOfDoc, String[] names, String[] addresses,
+                             Map<Integer, int[]> postings, int docs) {
+        this.storeVersion = storeVersion;
+        this.cols = cols;
+        this.rowOfDoc = rowOfDoc;
+        this.names = names;
+        this.addresses = addresses;
+        this.postings = postings;
+        this.docs = docs;
+    }
+
+    /** query 가 이름이나 주소에 들어 있는 행 번호, 관련도/점수 순 최대 limit 개 */
+    public int[] search(String query, int limit) {
+        String q = normalize(query);
+        if (q.length() < MIN_QUERY_LENGTH || limit <= 0) return NONE;
+
+        int[] grams = grams(q);
+        int[][] lists = new int[grams.length][];
+        for (int i = 0; i < grams.length; i++) {
+            int[] list = postings.get(grams[i]);
+            if (list == null) return NONE;
+            lists[i] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(a -> a.length));
+
+        // 가장 짧은 목록의 doc 만 나머지 목록에서 이분 탐색 → 비용이 전체 장소 수가 아니라 가장 드문 2-gram 에 비례
+        int[] shortest = lists[0];
+        int[] rows = new int[Math.min(shortest.length, 64)];
+        int[] relevance = new int[rows.length];
+        int n = 0;
+        for (int d : shortest) {
+            if (!inAll(lists, d)) continue;
+            int r = rowOfDoc[d];
+            if (r < 0) continue;
+            int rel = relevance(d, q);
+            if (rel == 0) continue;       // 2-gram 은 다 있지만 이어진 문자열은 아니다
+            if (n == rows.length) {
+                rows = Arrays.copyOf(rows, n * 2);
+                relevance = Arrays.copyOf(relevance, n * 2);
+            }
+            rows[n] = r;
+            relevance[n++] = rel;
+        }
+
+        final int[] hitRows = rows, hitRel = relevance;
+        int[] pos = TopK.of(n, (a, b) -> {
+            int c = Integer.compare(hitRel[b], hitRel[a]);
+            if (c == 0) c = Integer.compare(cols.totalScore(hitRows[b]), cols.totalScore(hitRows[a]));
+            if (c == 0) c = Integer.compare(cols.discount(hitRows[b]), cols.discount(hitRows[a]));
+            if (c == 0) c = KoreanCollation.compare(cols.nameKey(hitRows[a]), cols.nameKey(hitRows[b]));
+            if (c == 0) c = Integer.compare(hitRows[a], hitRows[b]);   // doc 순서는 반영 이력마다 달라서 행 번호로 끝낸다
+            return c;
+        }, limit);
+        int[] out = new int[pos.length];
+        for (int i = 0; i < pos.length; i++) out[i] = hitRows[pos[i]];
+        return out;
+    }
+
+    public PlaceColumns columns() { return cols; }
+
+    public long storeVersion() { return storeVersion; }
+
+    /** 색인한 스냅샷의 장소 수 */
+    public int size() { return cols.size(); }
+
+    /** 지워진 doc 번호까지 포함한 수 */
+    public int docCount() { return docs; }
+
+    public int gramCount() { return postings.size(); }
+
+    private static boolean inAll(int[][] lists, int d) {
+        for (int i = 1; i < lists.length; i++) {
+            if (Arrays.binarySearch(lists[i], d) < 0) return false;
+        }
+        return true;
+    }
+
+    /** 3 = 이름이 query 로 시작, 2 = 이름에 포함, 1 = 주소에만 포함, 0 = 없음 */
+    private int relevance(int d, String q) {
+        String name = names[d];
+        if (name.startsWith(q)) return 3;
+        if (name.contains(q)) return 2;
+        return addresses[d].contains(q) ? 1 : 0;
+    }
+
+    /** 소문자 + NFC, 공백 제거 ("강남 역" 과 "강남역" 을 같게 본다) */
+    public static String normalize(String s) {
+        if (s == null || s.isEmpty()) return "";
+        String nfc = Normalizer.normalize(s, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(nfc.length());
+        for (int i = 0; i < nfc.length(); i++) {
+            char c = nfc.charAt(i);
+            if (!Character.isWhitespace(c)) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /** 서로 다른 2-gram (앞 글자 << 16 | 뒤 글자) */
+    private static int[] grams(String s) {
+        int len = s.length() - 1;
+        if (len <= 0) return NONE;
+        int[] g = new int[len];
+        for (int i = 0; i < len; i++) g[i] = (s.charAt(i) << 16) | s.charAt(i + 1);
+        return Arrays.stream(g).sorted().distinct().toArray();
+    }
+
+    /** 이름과 주소 각각의 2-gram 합집합 (둘 사이에 걸친 2-gram 은 만들지 않는다) */
+    private static int[] grams(String name, String address) {
+        int[] a = grams(name), b = grams(address);
+        int[] all = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, all, a.length, b.length);
+        Arrays.sort(all);
+        return Arrays.stream(all).distinct().toArray();
+    }
+
+    /**
+     * PlaceStore 버전마다 바뀐 행만 반영해 새 스냅샷을 만든다. 한 스레드에서만 쓴다 (PlaceSearch 가 동기화).
+     * 지워진 doc 번호는 재사용하지 않고, 살아 있는 문서보다 많아지면 처음부터 다시 만든다.
+     */
+    static final class Builder {
+
+        private final Map<String, Integer> docOf = new HashMap<>();
+        private String[] names = new String[0];
+        private String[] addresses = new String[0];
+        private final Map<Integer, int[]> postings = new HashMap<>();
+        private int docs;
+        private int dead;
+
+        /** 직전 반영 이후 새로 잘랐거나 지운 문서 수 (로그용) */
+        private int touched;
+
+        PlaceSearchIndex apply(long storeVersion, PlaceColumns cols) {
+            if (dead > 1024 && dead > docs - dead) reset();
+            try {
+                return applyChanges(storeVersion, cols);
+            } catch (RuntimeException e) {
+                reset();   // 반쯤 반영된 상태로 남기지 않는다 → 다음 번에 처음부터
+                throw e;
+            }
+        }
+
+        private PlaceSearchIndex applyChanges(long storeVersion, PlaceColumns cols) {
+            touched = 0;
+
+            int n = cols.size();
+            Map<Integer, IntBuf> adds = new HashMap<>();
+            Map<Integer, IntBuf> removes = new HashMap<>();
+            int[] rowOfDoc = new int[docs + n];
+            Arrays.fill(rowOfDoc, -1);
+
+            for (int r = 0; r < n; r++) {
+                String id = cols.placeId(r);
+                if (id == null) continue;
+                String name = normalize(cols.name(r)), address = normalize(cols.address(r));
+                Integer doc = docOf.get(id);
+                if (doc == null) {
+                    int d = newDoc(id, name, address);
+                    for (int g : grams(name, address)) adds.computeIfAbsent(g, k -> new IntBuf()).add(d);
+                    rowOfDoc[d] = r;
+                    touched++;
+                    continue;
+                }
+                int d = doc;
+                if (rowOfDoc[d] >= 0) continue;              // 같은 place_id 가 두 번 (앞 행 우선)
+                rowOfDoc[d] = r;
+                if (name.equals(names[d]) && address.equals(addresses[d])) continue;
+
+                int[] before = grams(names[d], addresses[d]), after = grams(name, address);
+                for (int g : before) if (Arrays.binarySearch(after, g) < 0) removes.computeIfAbsent(g, k -> new IntBuf()).add(d);
+                for (int g : after) if (Arrays.binarySearch(before, g) < 0) adds.computeIfAbsent(g, k -> new IntBuf()).add(d);
+                names[d] = name;
+                addresses[d] = address;
+                touched++;
+            }
+
+            // 이번 스냅샷에 없는 place_id → 지운다
+            for (Iterator<Map.Entry<String, Integer>> it = docOf.entrySet().iterator(); it.hasNext(); ) {
+                int d = it.next().getValue();
+                if (rowOfDoc[d] >= 0) continue;
+                for (int g : grams(names[d], addresses[d])) removes.computeIfAbsent(g, k -> new IntBuf()).add(d);
+                names[d] = "";
+                addresses[d] = "";
+                it.remove();
+                dead++;
+                touched++;
+            }
+
+            Set<Integer> changed = new HashSet<>(adds.keySet());
+            changed.addAll(removes.keySet());
+            for (Integer g : changed) {
+                int[] merged = merge(postings.getOrDefault(g, NONE), adds.get(g), removes.get(g));
+                if (merged.length == 0) postings.remove(g);
+                else postings.put(g, merged);
+            }
+
+            return new PlaceSearchIndex(storeVersion, cols, Arrays.copyOf(rowOfDoc, docs),
+                    Arrays.copyOf(names, docs), Arrays.copyOf(addresses, docs), new HashMap<>(postings), docs);
+        }
+
+        int touched() { return touched; }
+
+        private int newDoc(String id, String name, String address) {
+            int d = docs++;
+            if (d == names.length) {
+                int cap = Math.max(16, d * 2);
+                names = Arrays.copyOf(names, cap);
+                addresses = Arrays.copyOf(addresses, cap);
+            }
+            names[d] = name;
+            addresses[d] = address;
+            docOf.put(id, d);
+            return d;
+        }
+
+        private void reset() {
+            docOf.clear();
+            postings.clear();
+            names = new String[0];
+            addresses = new String[0];
+            docs = 0;
+            dead = 0;
+        }
+
+        /** (old - removes) ∪ adds, 오름차순 */
+        private static int[] merge(int[] old, IntBuf adds, IntBuf removes) {
+            int[] add = (adds == null) ? NONE : adds.sorted();
+            int[] del = (removes == null) ? NONE : removes.sorted();
+            int[] out = new int[old.length + add.length];
+            int i = 0, j = 0, k = 0, n = 0;
+            while (i < old.length || j < add.length) {
+                int v;
+                if (j >= add.length || (i < old.length && old[i] < add[j])) v = old[i++];
+                else if (i >= old.length || add[j] < old[i]) v = add[j++];
+                else { v = old[i++]; j++; }
+                while (k < del.length && del[k] < v) k++;
+                if (k < del.length && del[k] == v) continue;
+                out[n++] = v;
+            }
+            return (n == out.length) ? out : Arrays.copyOf(out, n);
+        }
+    }
+
+    private static final class IntBuf {
+        private int[] a = new int[4];
+        private int n;
+
+        void add(int v) {
+            if (n == a.length) a = Arrays.copyOf(a, n * 2);
+            a[n++] = v;
+        }
+
+        int[] sorted() {
+            int[] out = Arrays.copyOf(a, n);
+            Arrays.sort(out);
+            return out;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.domo.service;
+
+import com.example.domo.model.PlaceColumns;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * PlaceStore 의 PlaceColumns 를 로컬 디스크에 그대로 떠두는 바이너리 스냅샷.
+ * 재배포 직후 DB 를 거치지 않고 FileChannel.map 으로 열어 인덱스를 바로 만들기 위한 용도다.
+ *
+ * <pre>
+ * header (HEADER_BYTES)
+ *   int  MAGIC, short FORMAT_VERSION, short 0
+ *   int  rows, int categories
+ *   long watermark(epoch ms, 없으면 -1), long baseLoadedAt(epoch ms)
+ *   long bodyBytes, int crc32(body)
+ * body
+ *   double[rows] lat, double[rows] lng, int[rows] discount, int[rows] totalScore, short[rows] categoryCode
+ *   (int off, int len)[rows] × placeId, name, address, sido, sigungu, benefit   (off = -1 이면 null)
+ *   (int off, int len)[categories]                                               (code 0 = null)
+ *   byte[] 문자열 힙 (UTF-8)
+ * </pre>
+ * 매직/버전/길이/CRC 중 하나라도 맞지 않으면 read() 는 IOException 을 던진다.
+ */
+final class PlaceSnapshotFile {
+
+    private static final int MAGIC = 0x444F4D50;        // "DOMP"
+    private static final short FORMAT_VERSION = 2;     // 2: 행 동점을 place_id 로 정렬
+    private static final int HEADER_BYTES = 48;
+    private static final int STRING_COLUMNS = 6;
+
+    private PlaceSnapshotFile() {}
+
+    /** 파일에서 읽은 스냅샷. watermark 는 변경 피드가 없었으면 null, baseLoadedAtMs 는 마지막 전체 적재 시각 */
+    record Snapshot(PlaceColumns columns, Instant watermark, long baseLoadedAtMs) {}
+
+    /** 임시 파일에 쓴 뒤 원자적으로 교체한다(읽는 쪽이 반쯤 쓰인 파일을 보지 않도록). */
+    static void write(Path file, PlaceColumns c, Instant watermark, long baseLoadedAtMs) throws IOException {
+        int n = c.size();
+        List<String> table = c.categoryTable();
+        int cats = table.size();
+
+        StringHeap heap = new StringHeap();
+        List<IntFunction<String>> columns = List.of(c::placeId, c::name, c::address, c::sido, c::sigungu, c::benefit);
+        int[][] refs = new int[STRING_COLUMNS + 1][];
+        for (int k = 0; k < STRING_COLUMNS; k++) refs[k] = heap.addAll(columns.get(k), n);
+        refs[STRING_COLUMNS] = heap.addAll(table::get, cats);
+
+        long bodyBytes = (long) n * (8 + 8 + 4 + 4 + 2)
+                + (long) STRING_COLUMNS * n * 8 + (long) cats * 8 + heap.size;
+        if (HEADER_BYTES + bodyBytes > Integer.MAX_VALUE) throw new IOException("snapshot too large: " + bodyBytes);
+
+        ByteBuffer buf = ByteBuffer.allocate((int) (HEADER_BYTES + bodyBytes));
+        buf.position(HEADER_BYTES);
+        for (int i = 0; i < n; i++) buf.putDouble(c.lat(i));
+        for (int i = 0; i < n; i++) buf.putDouble(c.lng(i));
+        for (int i = 0; i < n; i++) buf.putInt(c.discount(i));
+        for (int i = 0; i < n; i++) buf.putInt(c.totalScore(i));
+        for (int i = 0; i < n; i++) buf.putShort(c.categoryCode(i));
+        for (int[] ref : refs) for (int v : ref) buf.putInt(v);
+        buf.put(heap.bytes, 0, heap.size);
+
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), HEADER_BYTES, (int) bodyBytes);
+
+        buf.position(0);
+        buf.putInt(MAGIC).putShort(FORMAT_VERSION).putShort((short) 0)
+                .putInt(n).putInt(cats)
+                .putLong(watermark == null ? -1 : watermark.toEpochMilli()).putLong(baseLoadedAtMs)
+                .putLong(bodyBytes).putInt((int) crc.getValue());
+        buf.rewind();
+
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static Snapshot read(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_BYTES) throw new IOException("snapshot truncated: " + size + " bytes");
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buf.getInt() != MAGIC) throw new IOException("not a place snapshot");
+            short version = buf.getShort();
+            if (version != FORMAT_VERSION) throw new IOException("snapshot format " + version + " != " + FORMAT_VERSION);
+            buf.getShort();
+            int n = buf.getInt();
+            int cats = buf.getInt();
+            long wm = buf.getLong();
+            long baseLoadedAt = buf.getLong();
+            long bodyBytes = buf.getLong();
+            int crcValue = buf.getInt();
+
+            long expected = (long) n * (8 + 8 + 4 + 4 + 2) + (long) STRING_COLUMNS * n * 8 + (long) cats * 8;
+            if (n < 0 || cats < 1 || bodyBytes < expected || HEADER_BYTES + bodyBytes != size) {
+                throw new IOException("snapshot size mismatch");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buf.slice(HEADER_BYTES, (int) bodyBytes));
+            if ((int) crc.getValue() != crcValue) throw new IOException("snapshot checksum mismatch");
+
+            buf.position(HEADER_BYTES);
+            double[] lat = new double[n], lng = new double[n];
+            int[] discount = new int[n], totalScore = new int[n];
+            short[] categoryCode = new short[n];
+            buf.asDoubleBuffer().get(lat);           buf.position(buf.position() + n * 8);
+            buf.asDoubleBuffer().get(lng);           buf.position(buf.position() + n * 8);
+            buf.asIntBuffer().get(discount);         buf.position(buf.position() + n * 4);
+            buf.asIntBuffer().get(totalScore);       buf.position(buf.position() + n * 4);
+            buf.asShortBuffer().get(categoryCode);   buf.position(buf.position() + n * 2);
+
+            int[][] refs = new int[STRING_COLUMNS + 1][];
+            for (int k = 0; k < STRING_COLUMNS; k++) refs[k] = readInts(buf, n * 2);
+            refs[STRING_COLUMNS] = readInts(buf, cats * 2);
+
+            byte[] heap = new byte[buf.remaining()];
+            buf.get(heap);
+
+            List<String> table = new ArrayList<>(Arrays.asList(decode(heap, refs[STRING_COLUMNS], cats)));
+            if (table.get(0) != null) throw new IOException("snapshot category table corrupt");
+            for (int i = 0; i < n; i++) {
+                if (categoryCode[i] < 0 || categoryCode[i] >= cats) throw new IOException("snapshot category code corrupt");
+            }
+
+            PlaceColumns c = PlaceColumns.builder(n, table)
+                    .placeIds(decode(heap, refs[0], n))
+                    .names(decode(heap, refs[1], n))
+                    .addresses(decode(heap, refs[2], n))
+                    .sidos(decode(heap, refs[3], n))
+                    .sigungus(decode(heap, refs[4], n))
+                    .benefits(decode(heap, refs[5], n))
+                    .lats(lat).lngs(lng)
+                    .discounts(discount).totalScores(totalScore)
+                    .categoryCodes(categoryCode)
+                    .build();
+
+            return new Snapshot(c, wm < 0 ? null : Instant.ofEpochMilli(wm), baseLoadedAt);
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException("snapshot corrupt: " + e, e);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buf, int count) {
+        int[] out = new int[count];
+        buf.asIntBuffer().get(out);
+        buf.position(buf.position() + count * 4);
+        return out;
+    }
+
+    private static String[] decode(byte[] heap, int[] ref, int n) throws IOException {
+        String[] out = new String[n];
+        for (int i = 0; i < n; i++) {
+            int off = ref[2 * i], len = ref[2 * i + 1];
+            if (off < 0) continue;
+            if (len < 0 || off + len > heap.length || off + len < 0) throw new IOException("snapshot string ref corrupt");
+            out[i] = new String(heap, off, len, StandardCharsets.UTF_8);
+        }
+        return out;
+    }
+
+    /** 문자열을 UTF-8 로 이어붙인 힙. 같은 문자열이 바로 앞과 같으면(시도/시군구 등) 재사용한다 */
+    private static final class StringHeap {
+        byte[] bytes = new byte[1 << 16];
+        int size;
+
+        int[] addAll(IntFunction<String> values, int n) {
+            int[] ref = new int[n * 2];
+            String prev = null;
+            int prevOff = -1, prevLen = 0;
+            for (int i = 0; i < n; i++) {
+                String v = values.apply(i);
+                if (v == null) {
+                    ref[2 * i] = -1;
+                    continue;
+                }
+                if (!v.equals(prev)) {
+                    byte[] b = v.getBytes(StandardCharsets.UTF_8);
+                    if (size + b.length > bytes.length) {
+                        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + b.length));
+                    }
+                    System.arraycopy(b, 0, bytes, size, b.length);
+                    prev = v; prevOff = size; prevLen = b.length;
+                    size += b.length;
+                }
+                ref[2 * i] = prevOff;
+                ref[2 * i + 1] = prevLen;
+            }
+            return ref;
+        }
+    }
+}
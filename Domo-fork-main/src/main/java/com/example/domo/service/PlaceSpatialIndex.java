@@ -0,0 +1,262 @@
+package com.example.domo.service;
+
+import com.example.domo.model.Place;
+import com.example.domo.model.PlaceColumns;
+import com.example.domo.model.PlaceCursor;
+import com.example.domo.util.CategoryDictionary;
+import com.example.domo.util.HaversineUtil;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * places 전체를 힙에 올려두고 고정 위/경도 격자(cell)로 나눈 읽기 전용 공간 인덱스.
+ * 반경 + 카테고리 + limit 조회를 DB 왕복 없이 처리한다.
+ *
+ * 행은 fetchPlaces/fetchPlacesNear 의 SQL 정렬(RANK_KEY: totalscore DESC, discountpercent DESC, place_id) 순서로
+ * 미리 정렬해두므로, 반경 안에 든 행 번호만 오름차순 정렬하면 곧 결과 순서가 된다. 같은 순서가 곧 PlaceCursor.ORDER 라
+ * 키셋 페이지도 행 번호 위에서 바로 이분 탐색한다.
+ */
+public final class PlaceSpatialIndex {
+
+    /** 격자 한 칸 크기(도). 0.01° ≈ 위도 1.1km */
+    static final double CELL_DEG = 0.01;
+
+    /** fetchPlaces/fetchPlacesNear 결과 순서. 동점은 DB 콜레이션을 타지 않는 place_id 로만 가른다(샤드 병합과 같은 순서) */
+    static final Comparator<Place> RANK_ORDER =
+            Comparator.comparingInt(Place::getTotalScore).reversed()
+                    .thenComparing(Comparator.comparingInt(Place::getDiscountPercent).reversed())
+                    .thenComparing(p -> nvl(p.getPlaceId()));
+
+    private final PlaceColumns cols;   // 랭킹 순으로 정렬된 열 스냅샷
+    private final Map<Long, int[]> cells;
+    private final PlaceKdTree tree;    // k-최근접 조회용
+    private final BitSet located;      // 좌표가 있는 행
+    private final BitSet[] byCategory; // 정규 카테고리 코드 → 해당 행 (없는 코드는 null)
+
+    private PlaceSpatialIndex(PlaceColumns cols, Map<Long, int[]> cells, PlaceKdTree tree, BitSet located) {
+        this.cols = cols;
+        this.cells = cells;
+        this.tree = tree;
+        this.located = located;
+        this.byCategory = categoryBits(cols);
+    }
+
+    private static BitSet[] categoryBits(PlaceColumns cols) {
+        int n = cols.size();
+        BitSet[] bits = new BitSet[CategoryDictionary.size()];
+        for (int r = 0; r < n; r++) {
+            short id = cols.categoryId(r);
+            if (id == CategoryDictionary.NONE) continue;
+            if (bits[id] == null) bits[id] = new BitSet(n);
+            bits[id].set(r);
+        }
+        return bits;
+    }
+
+    public static PlaceSpatialIndex build(Collection<Place> places) {
+        List<Place> sorted = new ArrayList<>(places.size());
+        for (Place p : places) if (p != null) sorted.add(p);
+        sorted.sort(RANK_ORDER);
+        return build(PlaceColumns.of(sorted));
+    }
+
+    /** cols 는 RANK_ORDER 로 정렬돼 있어야 한다 */
+    public static PlaceSpatialIndex build(PlaceColumns cols) {
+        int n = cols.size();
+        int[] valid = new int[n];
+        int m = 0;
+        BitSet located = new BitSet(n);
+        Map<Long, int[]> cells = new HashMap<>();
+        Map<Long, Integer> fill = new HashMap<>();
+        for (int r = 0; r < n; r++) {
+            if (!cols.hasLatLng(r)) continue;
+            valid[m++] = r;
+            located.set(r);
+            fill.merge(cellKey(cellOf(cols.lat(r)), cellOf(cols.lng(r))), 1, Integer::sum);
+        }
+        fill.forEach((k, cnt) -> cells.put(k, new int[cnt]));
+        fill.replaceAll((k, v) -> 0);
+        for (int i = 0; i < m; i++) {
+            int r = valid[i];
+            long key = cellKey(cellOf(cols.lat(r)), cellOf(cols.lng(r)));
+            // 행 번호가 증가 순으로 들어가므로 셀 내부도 이미 랭킹 순
+            cells.get(key)[fill.merge(key, 1, Integer::sum) - 1] = r;
+        }
+        return new PlaceSpatialIndex(cols, cells, new PlaceKdTree(cols, Arrays.copyOf(valid, m)), located);
+    }
+
+    /**
+     * removedIds 와 upserts 의 place_id 행을 빼고 upserts 를 랭킹 자리에 끼워 넣은 새 인덱스 (이 인덱스는 그대로).
+     * 열은 Place 를 다시 만들거나 전체를 정렬하지 않고 바뀐 행만 정렬해 병합한다(O(n + m log m)).
+     * 행 번호가 곧 랭킹 순이라 한 행의 점수만 바뀌어도 사이의 행 번호가 모두 밀리므로,
+     * 행 번호를 담는 격자/KD-tree/카테고리 비트는 새 열에서 다시 만든다.
+     */
+    public PlaceSpatialIndex patch(Collection<String> removedIds, Collection<Place> upserts) {
+        Set<String> gone = new HashSet<>(removedIds);
+        Map<String, Place> byId = new LinkedHashMap<>();
+        for (Place p : upserts) {
+            if (p != null && p.getPlaceId() != null) byId.put(p.getPlaceId(), p);   // 같은 id 는 뒤의 것이 이긴다
+        }
+        gone.addAll(byId.keySet());
+        List<Place> added = new ArrayList<>(byId.values());
+        added.sort(RANK_ORDER);
+        PlaceColumns add = PlaceColumns.of(added);
+
+        int n = cols.size(), m = add.size();
+        int[] from = new int[n + m];
+        int k = 0, j = 0;
+        for (int r = 0; r < n; r++) {
+            if (gone.contains(cols.placeId(r))) continue;
+            PlaceCursor at = cursorAt(cols, r);
+            while (j < m && PlaceCursor.ORDER.compare(cursorAt(add, j), at) < 0) from[k++] = ~j++;
+            from[k++] = r;
+        }
+        while (j < m) from[k++] = ~j++;
+        return build(PlaceColumns.merge(cols, add, Arrays.copyOf(from, k)));
+    }
+
+    /** 좌표가 있어 인덱싱된 장소 수 */
+    public int size() { return tree.size(); }
+
+    public PlaceColumns columns() { return cols; }
+
+    /** fetchPlacesNear 와 같은 의미: 반경(km) 안, 카테고리(동의어 포함) 일치, 랭킹 순 상위 limit 개 */
+    public List<Place> near(double centerLat, double centerLng, double radiusKm, List<String> categories, int limit) {
+        int[] hits = rowsWithin(centerLat, centerLng, radiusKm, categoryRows(categories));
+        Arrays.sort(hits);
+        int n = Math.min(hits.length, Math.max(1, limit));
+        List<Place> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(cols.toPlace(hits[i]));
+        return out;
+    }
+
+    /** 반경 안에서 가장 가까운 한 곳 */
+    public Optional<Place> nearest(double centerLat, double centerLng, double radiusKm) {
+        int[] hit = tree.nearest(centerLat, centerLng, 1, null);
+        if (hit.length == 0 || distanceKm(centerLat, centerLng, hit[0]) > radiusKm) {
+            return Optional.empty();
+        }
+        return Optional.of(cols.toPlace(hit[0]));
+    }
+
+    /** 카테고리(동의어 포함)가 맞는 곳 중 가까운 순 최대 k 개 */
+    public List<Place> kNearest(double centerLat, double centerLng, int k, List<String> categories) {
+        int[] hits = tree.nearest(centerLat, centerLng, k, accept(categoryRows(categories)));
+        List<Place> out = new ArrayList<>(hits.length);
+        for (int r : hits) out.add(cols.toPlace(r));
+        return out;
+    }
+
+    /** 반경 안 후보 중 k번째로 가까운 곳까지의 거리(km). 후보가 k개 미만이면 empty */
+    public OptionalDouble kthNearestDistanceKm(double centerLat, double centerLng, double maxRadiusKm,
+                                               List<String> categories, int k) {
+        int kk = Math.max(1, k);
+        int[] hits = tree.nearest(centerLat, centerLng, kk, accept(categoryRows(categories)));
+        if (hits.length < kk) return OptionalDouble.empty();
+        double d = distanceKm(centerLat, centerLng, hits[kk - 1]);
+        return d <= maxRadiusKm ? OptionalDouble.of(d) : OptionalDouble.empty();
+    }
+
+    /** fetchPlacesAfter 와 같은 의미: 키셋 순서로 after 다음, 지역(null = 전체)이 맞는 행 최대 limit 개 */
+    public List<Place> pageAfter(String sido, String sigungu, PlaceCursor after, int limit) {
+        int i = 0;
+        if (after != null) {
+            // after 보다 뒤인 첫 행 (이분 탐색)
+            int lo = 0, hi = cols.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (PlaceCursor.ORDER.compare(cursorAt(cols, mid), after) <= 0) lo = mid + 1;
+                else hi = mid;
+            }
+            i = lo;
+        }
+        List<Place> out = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+        for (int r = i; r < cols.size() && out.size() < limit; r++) {
+            if (sido != null && !sido.equals(cols.sido(r))) continue;
+            if (sigungu != null && !sigungu.equals(cols.sigungu(r))) continue;
+            out.add(cols.toPlace(r));
+        }
+        return out;
+    }
+
+    private static PlaceCursor cursorAt(PlaceColumns cols, int r) {
+        return new PlaceCursor(cols.totalScore(r), cols.discount(r), nvl(cols.placeId(r)));
+    }
+
+    private static String nvl(String s) { return s == null ? "" : s; }
+
+    /**
+     * 요청 카테고리 중 하나에 속한 행 (카테고리별 비트셋을 워드 단위로 OR). 필터가 없으면 null,
+     * 아는 카테고리가 하나도 없으면 빈 비트셋.
+     */
+    private BitSet categoryRows(List<String> categories) {
+        if (categories == null || categories.isEmpty()) return null;
+        BitSet rows = new BitSet(cols.size());
+        for (String s : categories) {
+            short id = CategoryDictionary.find(s);
+            if (id > CategoryDictionary.NONE && id < byCategory.length && byCategory[id] != null) rows.or(byCategory[id]);
+        }
+        return rows;
+    }
+
+    private static IntPredicate accept(BitSet rows) {
+        if (rows == null) return null;
+        return rows::get;
+    }
+
+    private int[] rowsWithin(double cLat, double cLng, double radiusKm, BitSet filter) {
+        if (tree.size() == 0 || !Double.isFinite(radiusKm) || radiusKm < 0) return new int[0];
+
+        double[] box = HaversineUtil.boundingBox(cLat, cLng, radiusKm);
+        int lat0 = cellOf(box[0]), lat1 = cellOf(box[1]);
+        int lng0 = cellOf(box[2]), lng1 = cellOf(box[3]);
+
+        int[] buf = new int[16];
+        int n = 0;
+        long span = (long) (lat1 - lat0 + 1) * (lng1 - lng0 + 1);
+        if (span > cells.size()) {
+            // 반경이 너무 넓으면 빈 칸까지 훑는 대신 (카테고리 ∧ 좌표 있음) 비트셋의 행만 돈다 → 결과도 이미 랭킹 순
+            BitSet candidates = located;
+            if (filter != null) {
+                candidates = (BitSet) filter.clone();
+                candidates.and(located);
+            }
+            for (int r = candidates.nextSetBit(0); r >= 0; r = candidates.nextSetBit(r + 1)) {
+                if (distanceKm(cLat, cLng, r) <= radiusKm) {
+                    if (n == buf.length) buf = Arrays.copyOf(buf, n * 2);
+                    buf[n++] = r;
+                }
+            }
+        } else {
+            for (int a = lat0; a <= lat1; a++) {
+                for (int b = lng0; b <= lng1; b++) {
+                    int[] cell = cells.get(cellKey(a, b));
+                    if (cell == null) continue;
+                    for (int r : cell) {
+                        if (matches(r, cLat, cLng, radiusKm, filter)) {
+                            if (n == buf.length) buf = Arrays.copyOf(buf, n * 2);
+                            buf[n++] = r;
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(buf, n);
+    }
+
+    private boolean matches(int r, double cLat, double cLng, double radiusKm, BitSet filter) {
+        if (filter != null && !filter.get(r)) return false;
+        return distanceKm(cLat, cLng, r) <= radiusKm;
+    }
+
+    private double distanceKm(double cLat, double cLng, int r) {
+        return HaversineUtil.distanceKm(cLat, cLng, cols.lat(r), cols.lng(r));
+    }
+
+    private static int cellOf(double deg) { return (int) Math.floor(deg / CELL_DEG); }
+
+    private static long cellKey(int latCell, int lngCell) {
+        return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+    }
+}
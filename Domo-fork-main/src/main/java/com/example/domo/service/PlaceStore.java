@@ -0,0 +1,310 @@
+package com.example.domo.service;
+
+import com.example.domo.model.Place;
+import com.example.domo.model.PlaceColumns;
+import com.example.domo.model.PlaceCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * places 테이블 전체를 메모리에 올려두는 저장소.
+ * 로드 전이거나 로드에 실패하면 index() 가 null 이고, 호출자는 DB 경로를 그대로 쓴다.
+ *
+ * 주기적으로 updated_at 워터마크 이후 바뀐 행/삭제된 행만 받아 새 인덱스를 만들고 통째로 교체한다.
+ * 읽는 쪽은 교체 전 인덱스나 교체 후 인덱스 중 하나만 보게 된다(중간 상태 없음).
+ * 변경 피드가 없는 DB 이거나 full-interval 이 지나면 전체 재적재로 다시 맞춘다.
+ *
+ * snapshot.path 를 지정하면 스냅샷을 주기적으로 디스크에 떠두고, 기동 시 DB 대신 그 파일로 먼저 인덱스를 만든 뒤
+ * 워터마크 이후 변경분만 따라잡는다.
+ */
+@Component
+public class PlaceStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaceStore.class);
+    private static final int PAGE = 1000;
+
+    /**
+     * updated_at 은 트랜잭션 시작 시각이라 늦게 커밋된 행이 워터마크보다 과거 시각을 가질 수 있다.
+     * 매번 이만큼 겹쳐서 다시 읽는다(같은 행을 다시 적용해도 결과는 같다).
+     */
+    private static final Duration OVERLAP = Duration.ofSeconds(30);
+
+    /** changedIdsSince 가 기억하는 최근 변경분 버전 수 */
+    private static final int CHANGE_LOG = 32;
+
+    private final SupabaseService db;
+    private final boolean enabled;
+    private final int maxRows;
+    private final long fullIntervalMs;
+    private final Path snapshotPath;           // null 이면 디스크 스냅샷 사용 안 함
+
+    private volatile Current current = new Current(0, null);
+    private volatile Instant watermark;        // 다음 변경분 조회 기준, 변경 피드가 없으면 null
+    private volatile boolean truncated;        // 마지막 전체 적재가 max-rows 에서 끊겼다 (테이블 일부만 들고 있음)
+    private volatile long fullLoadedAtMs;
+    private volatile long writtenVersion;      // 디스크에 마지막으로 쓴 version
+    private volatile List<Change> recentChanges = List.of();   // 버전 오름차순, 전체 적재 뒤에는 비어 있다
+
+    /** 한 번의 변경분 반영으로 바뀐(추가/수정/삭제) place_id */
+    private record Change(long version, Set<String> ids) {}
+
+    /**
+     * 게시된 인덱스와 그 버전 (인덱스가 교체될 때마다 +1, 0 = 아직 로드 전).
+     * 둘을 따로 읽으면 새 버전 번호에 이전 인덱스를 짝지을 수 있으므로 한 객체로 같이 바꾼다.
+     */
+    public record Current(long version, PlaceSpatialIndex index) {}
+
+    public PlaceStore(@Qualifier("placeDatabase") SupabaseService db,
+                      @Value("${domo.places.store.enabled:true}") boolean enabled,
+                      @Value("${domo.places.store.max-rows:200000}") int maxRows,
+                      @Value("${domo.places.refresh.full-interval-ms:21600000}") long fullIntervalMs,
+                      @Value("${domo.places.snapshot.path:}") String snapshotPath) {
+        this.db = db;
+        this.enabled = enabled;
+        this.maxRows = maxRows;
+        this.fullIntervalMs = fullIntervalMs;
+        this.snapshotPath = (snapshotPath == null || snapshotPath.isBlank()) ? null : Path.of(snapshotPath);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            log.info("[PlaceStore] disabled → DB 직접 조회");
+            return;
+        }
+        if (loadSnapshotFile()) {
+            try {
+                refresh();
+            } catch (Exception e) {
+                log.warn("[PlaceStore] catch-up after snapshot failed: {} → 스냅샷으로 계속 동작", e.getMessage());
+            }
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("[PlaceStore] initial load failed: {} → DB 직접 조회로 동작", e.getMessage());
+        }
+    }
+
+    /** 디스크 스냅샷으로 인덱스를 만든다. 파일이 없거나 깨졌거나 full-interval 보다 오래됐으면 false */
+    synchronized boolean loadSnapshotFile() {
+        if (snapshotPath == null || !Files.isRegularFile(snapshotPath)) return false;
+        long t0 = System.nanoTime();
+        PlaceSnapshotFile.Snapshot snap;
+        try {
+            snap = PlaceSnapshotFile.read(snapshotPath);
+        } catch (IOException e) {
+            log.warn("[PlaceStore] snapshot {} rejected: {}", snapshotPath, e.getMessage());
+            return false;
+        }
+        if (System.currentTimeMillis() - snap.baseLoadedAtMs() >= fullIntervalMs) {
+            log.info("[PlaceStore] snapshot {} is stale → DB 에서 전체 적재", snapshotPath);
+            return false;
+        }
+        // 파일은 인덱스 열을 그대로 쓴 것이라 이미 랭킹 순이다
+        PlaceSpatialIndex built = PlaceSpatialIndex.build(snap.columns());
+        // 파일에는 끊겼는지가 없다 → max-rows 만큼 차 있으면 끊긴 것으로 본다
+        publish(built, snap.watermark(), built.columns().size() >= maxRows, null);
+        fullLoadedAtMs = snap.baseLoadedAtMs();
+        writtenVersion = current.version();
+        log.info("[PlaceStore] loaded {} places from snapshot {} in {} ms",
+                built.columns().size(), snapshotPath, (System.nanoTime() - t0) / 1_000_000);
+        return true;
+    }
+
+    @Scheduled(initialDelayString = "${domo.places.snapshot.write-interval-ms:600000}",
+               fixedDelayString = "${domo.places.snapshot.write-interval-ms:600000}")
+    public void scheduledSnapshotWrite() {
+        if (!enabled || snapshotPath == null) return;
+        try {
+            writeSnapshotFile();
+        } catch (Exception e) {
+            log.warn("[PlaceStore] snapshot write failed: {}", e.getMessage());
+        }
+    }
+
+    /** 마지막으로 쓴 뒤 인덱스가 바뀌었으면 디스크 스냅샷을 새로 쓴다 */
+    public void writeSnapshotFile() throws IOException {
+        PlaceSpatialIndex idx;
+        Instant wm;
+        long base, v;
+        synchronized (this) {
+            Current c = current;
+            idx = c.index(); wm = watermark; base = fullLoadedAtMs; v = c.version();
+        }
+        if (snapshotPath == null || idx == null || v == writtenVersion) return;
+        long t0 = System.nanoTime();
+        PlaceSnapshotFile.write(snapshotPath, idx.columns(), wm, base);
+        writtenVersion = v;
+        log.info("[PlaceStore] wrote snapshot v{} ({} places) in {} ms",
+                v, idx.columns().size(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    @Scheduled(initialDelayString = "${domo.places.refresh.interval-ms:60000}",
+               fixedDelayString = "${domo.places.refresh.interval-ms:60000}")
+    public void scheduledRefresh() {
+        if (!enabled) return;
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("[PlaceStore] refresh failed: {} → 기존 스냅샷 유지", e.getMessage());
+        }
+    }
+
+    /** 전체 재적재 후 인덱스를 통째로 교체한다(읽는 쪽은 항상 완성된 인덱스만 본다). */
+    public synchronized void reload() {
+        // 워터마크를 먼저 잡아야 적재 도중 바뀐 행을 다음 refresh 에서 놓치지 않는다
+        Instant wm = db.fetchPlaceChanges(null).map(PlaceChangeSet::watermark).orElse(null);
+
+        // 키셋으로 넘긴다 (OFFSET 은 뒤로 갈수록 앞 행을 다시 훑고, 샤드가 여럿이면 페이지마다 앞부분을 다시 합친다)
+        List<Place> all = new ArrayList<>();
+        PlaceCursor after = null;
+        boolean more = true;
+        while (more && all.size() < maxRows) {
+            int want = Math.min(PAGE, maxRows - all.size());
+            List<Place> page = db.fetchPlacesAfter(null, null, after, want);
+            all.addAll(page);
+            more = page.size() == want;     // max-rows 에서 꽉 찬 페이지로 끝나면 끊긴 것으로 본다
+            if (more) after = PlaceCursor.of(page.get(page.size() - 1));
+        }
+        long t0 = System.nanoTime();
+        PlaceSpatialIndex built = PlaceSpatialIndex.build(all);
+        publish(built, wm, more, null);
+        fullLoadedAtMs = System.currentTimeMillis();
+        if (more) log.warn("[PlaceStore] max-rows {} 에서 적재를 멈췄다 → 건수는 DB 에서 센다", maxRows);
+        log.info("[PlaceStore] loaded {} places ({} indexed) in {} ms",
+                all.size(), built.size(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    /**
+     * 워터마크 이후 변경분만 반영한다.
+     * 아직 로드 전이거나 full-interval 이 지났으면 전체 재적재, 변경 피드가 없으면 아무것도 하지 않는다.
+     */
+    public synchronized void refresh() {
+        PlaceSpatialIndex cur = current.index();
+        if (cur == null || System.currentTimeMillis() - fullLoadedAtMs >= fullIntervalMs) {
+            reload();
+            return;
+        }
+        Instant wm = watermark;
+        if (wm == null) return;
+
+        Optional<PlaceChangeSet> changes = db.fetchPlaceChanges(wm.minus(OVERLAP));
+        if (changes.isEmpty()) {
+            watermark = null;   // 변경 피드가 사라졌다 → 다음 full reload 까지 현재 스냅샷 유지
+            return;
+        }
+        PlaceChangeSet cs = effective(cur.columns(), changes.get());
+        Instant next = cs.watermark().isAfter(wm) ? cs.watermark() : wm;
+        if (cs.isEmpty()) {
+            // 겹침 구간에서 다시 읽힌 행뿐이다 → 인덱스/version 은 그대로 두고 워터마크만
+            watermark = next;
+            return;
+        }
+
+        long t0 = System.nanoTime();
+        PlaceSpatialIndex built = cur.patch(cs.deletedIds(), cs.upserts());
+        Set<String> ids = new HashSet<>(cs.deletedIds());
+        for (Place p : cs.upserts()) ids.add(p.getPlaceId());
+        publish(built, next, truncated, ids);   // 끊긴 적재는 다음 전체 적재까지 그대로
+        log.info("[PlaceStore] applied {} upserts / {} deletes → {} places in {} ms",
+                cs.upserts().size(), cs.deletedIds().size(), built.columns().size(),
+                (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    /**
+     * OVERLAP 때문에 매번 다시 읽히는 이미 반영한 행을 뺀 변경분.
+     * upsert 는 현재 행과 내용이 같으면, 삭제는 현재 없는 place_id 면 뺀다 (같은 id 의 upsert 가 있으면 upsert 가 이긴다).
+     */
+    static PlaceChangeSet effective(PlaceColumns cols, PlaceChangeSet cs) {
+        if (cs.isEmpty()) return cs;
+        Map<String, Integer> rowOf = new HashMap<>(cols.size() * 4 / 3 + 16);
+        for (int r = 0; r < cols.size(); r++) rowOf.putIfAbsent(cols.placeId(r), r);
+
+        Set<String> upserted = new HashSet<>();
+        List<Place> upserts = new ArrayList<>();
+        for (Place p : cs.upserts()) {
+            if (p == null || p.getPlaceId() == null) continue;
+            upserted.add(p.getPlaceId());
+            Integer r = rowOf.get(p.getPlaceId());
+            if (r == null || !cols.sameAs(r, p)) upserts.add(p);
+        }
+        List<String> deleted = new ArrayList<>();
+        for (String id : cs.deletedIds()) {
+            if (rowOf.containsKey(id) && !upserted.contains(id)) deleted.add(id);
+        }
+        return new PlaceChangeSet(upserts, deleted, cs.watermark());
+    }
+
+    /** changedIds 가 null 이면 전체 교체 (이전 버전과 무엇이 다른지 모른다) */
+    private void publish(PlaceSpatialIndex built, Instant wm, boolean truncated, Set<String> changedIds) {
+        long v = current.version() + 1;
+        List<Change> changes = List.of();
+        if (changedIds != null) {
+            List<Change> prev = recentChanges;
+            List<Change> next = new ArrayList<>(prev.subList(Math.max(0, prev.size() - CHANGE_LOG + 1), prev.size()));
+            next.add(new Change(v, Set.copyOf(changedIds)));
+            changes = List.copyOf(next);
+        }
+        // 읽는 쪽은 version 을 먼저 읽으므로 그 버전의 변경 기록이 먼저 보여야 한다
+        this.recentChanges = changes;
+        this.watermark = wm;
+        this.truncated = truncated;
+        this.current = new Current(v, built);
+    }
+
+    /** 인덱스와 버전을 한 번에 (인덱스로 뭔가를 만들고 그 버전을 기록하는 쪽은 이것을 쓴다) */
+    public Current current() {
+        return current;
+    }
+
+    /** 사용 가능한 인덱스, 아직 없으면 null */
+    public PlaceSpatialIndex index() {
+        return current.index();
+    }
+
+    /** 인덱스 교체 횟수 (0 = 아직 로드 전) */
+    public long version() {
+        return current.version();
+    }
+
+    /**
+     * (since, upTo] 버전에서 바뀐 place_id. 그 사이에 전체 적재가 있었거나 기록이 밀려났으면 null
+     * (호출자는 전부 바뀐 것으로 봐야 한다).
+     */
+    public Set<String> changedIdsSince(long since, long upTo) {
+        if (since <= 0 || upTo < since) return null;
+        Set<String> ids = new HashSet<>();
+        long covered = 0;
+        for (Change c : recentChanges) {
+            if (c.version() <= since || c.version() > upTo) continue;
+            ids.addAll(c.ids());
+            covered++;
+        }
+        return (covered == upTo - since) ? ids : null;
+    }
+
+    /** 인덱스가 max-rows 에서 끊겨 테이블 일부만 담고 있으면 true (건수/전체 목록은 DB 를 봐야 한다) */
+    public boolean truncated() {
+        return truncated;
+    }
+
+    /** 마지막으로 반영한 변경 시각, 변경 피드가 없으면 null */
+    public Instant watermark() {
+        return watermark;
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.domo.service;
 
 import com.example.domo.model.Place;
+import com.example.domo.model.PlaceColumns;
+import com.example.domo.model.ScoreColumns;
+import com.example.domo.util.CategoryDictionary;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class PopularityService {
@@ -11,41 +16,93 @@ public class PopularityService {
     public enum Mode { SIMPLE, GEO_DENSITY }
 
     private static final double DENSITY_RADIUS_M = 300.0;
+    private static final double EARTH_RADIUS_M = 6371000.0;
+    private static final double GRID_SLACK = 1.001;
+
+    private final ScoringPool scoringPool;
+
+    public PopularityService(ScoringPool scoringPool) {
+        this.scoringPool = scoringPool;
+    }
 
     public void computePopularity(List<Place> places, Mode mode) {
-        for (int i = 0; i < places.size(); i++) {
+        int n = places.size();
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        int[] catScore = new int[n];
+        int[] discount = new int[n];
+        int[] byCode = categoryScores();
+        for (int i = 0; i < n; i++) {
             Place p = places.get(i);
+            boolean has = p.getLat() != null && p.getLng() != null;
+            lat[i] = has ? p.getLat() : Double.NaN;
+            lng[i] = has ? p.getLng() : Double.NaN;
+            catScore[i] = byCode[p.categoryCode()];
+            discount[i] = p.getDiscountPercent();
+        }
+        int[] out = new int[n];
+        compute(n, lat, lng, catScore, discount, mode, out);
+        for (int i = 0; i < n; i++) places.get(i).setPopularity(out[i]);
+    }
 
-            int densityScore = 0;
-            if (mode == Mode.GEO_DENSITY && hasLatLng(p)) {
-                int neighbors = countNeighbors(places, i, DENSITY_RADIUS_M, false);
-                int capped = Math.min(neighbors, 50);
-                densityScore = (int) Math.round((capped / 50.0) * 100.0);
-            }
+    /** 열 스냅샷의 rows[0..n) 행에 대해 계산하고 scores.popularity[pos] 에 기록한다 (반환값 = 순차/병렬 중 탄 경로) */
+    public ScoringPool.Path computePopularity(PlaceColumns cols, int[] rows, int n, Mode mode, ScoreColumns scores) {
+        int[] byCode = categoryScores();
+
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        int[] catScore = new int[n];
+        int[] discount = new int[n];
+        for (int i = 0; i < n; i++) {
+            int r = rows[i];
+            lat[i] = cols.lat(r);
+            lng[i] = cols.lng(r);
+            catScore[i] = byCode[cols.categoryId(r)];
+            discount[i] = cols.discount(r);
+        }
+        return compute(n, lat, lng, catScore, discount, mode, scores.popularity);
+    }
 
-            int categoryScore = categoryScore(p.getCategory());
+    private ScoringPool.Path compute(int n, double[] lat, double[] lng, int[] catScore, int[] discount, Mode mode, int[] out) {
+        int[] neighborCounts = (mode == Mode.GEO_DENSITY) ? countAllNeighbors(n, lat, lng, DENSITY_RADIUS_M) : null;
+        return scoringPool.forRange(n, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int densityScore = 0;
+                if (mode == Mode.GEO_DENSITY && hasLatLng(lat[i], lng[i])) {
+                    int neighbors = neighborCounts[i];
+                    int capped = Math.min(neighbors, 50);
+                    densityScore = (int) Math.round((capped / 50.0) * 100.0);
+                }
 
-            int discountBonus = Math.max(0, Math.min(100, p.getDiscountPercent()));
+                int categoryScore = catScore[i];
 
-            double raw = (4 * densityScore + 3 * categoryScore + 3 * discountBonus) / 10.0;
-            int popularity = (int) Math.round(raw);
+                int discountBonus = Math.max(0, Math.min(100, discount[i]));
 
-            popularity = Math.max(0, Math.min(100, popularity));
+                double raw = (4 * densityScore + 3 * categoryScore + 3 * discountBonus) / 10.0;
+                int popularity = (int) Math.round(raw);
 
-            p.setPopularity(popularity);
-        }
+                popularity = Math.max(0, Math.min(100, popularity));
+
+                out[i] = popularity;
+            }
+        });
     }
 
-    private boolean hasLatLng(Place p) {
-        double lat = p.getLat();
-        double lng = p.getLng();
+    private boolean hasLatLng(double lat, double lng) {
         if (Double.isNaN(lat) || Double.isNaN(lng)) return false;
         if (lat == 0.0 && lng == 0.0) return false;          // (0,0) 초기값 배제
         if (Math.abs(lat) > 90 || Math.abs(lng) > 180) return false; // 범위 초과 배제
         return true;
     }
 
-    private int categoryScore(String category) {
+    /** 정규 카테고리 코드별 점수. 동의어는 이미 같은 코드라 대표 이름으로 한 번씩만 판정한다 */
+    private static int[] categoryScores() {
+        int[] byCode = new int[CategoryDictionary.size()];
+        for (short code = 0; code < byCode.length; code++) byCode[code] = categoryScore(CategoryDictionary.name(code));
+        return byCode;
+    }
+
+    private static int categoryScore(String category) {
         if (category == null) return 40;
         String c = category.trim();
         if (c.contains("식당") || c.contains("음식") || c.equalsIgnoreCase("restaurant")) return 60;
@@ -54,22 +111,95 @@ public class PopularityService {
         return 40;
     }
 
-    private int countNeighbors(List<Place> places, int idx, double radiusMeters, boolean categoryFilter) {
-        Place center = places.get(idx);
+    /**
+     * 모든 행의 반경 내 이웃 수 (좌표 없는 행은 0).
+     * 반경 크기 격자에 나눠 담고 자기 칸 + 주변 8칸만 하버사인으로 확인한다 → 전체 쌍 비교와 같은 값.
+     *
+     * 칸 크기: 위도는 거리 ≥ R·|Δφ| 라서 반경 그대로, 경도는 hav(d/R) ≥ cos²φmax·hav(Δλ) 에서
+     * Δλ ≤ 2·asin(sin(r/2R) / cos φmax) 로 잡는다 (φmax = 데이터 중 가장 높은 |위도|).
+     * 극 근처나 날짜변경선 근처 좌표가 있으면 전체 쌍 비교로 계산한다.
+     */
+    int[] countAllNeighbors(int n, double[] lat, double[] lng, double radiusMeters) {
+        int[] counts = new int[n];
+        int[] valid = new int[n];
+        int m = 0;
+        double maxAbsLat = 0;
+        for (int i = 0; i < n; i++) {
+            if (!hasLatLng(lat[i], lng[i])) continue;
+            valid[m++] = i;
+            maxAbsLat = Math.max(maxAbsLat, Math.abs(lat[i]));
+        }
+        if (m < 2) return counts;
+
+        double half = Math.sin(radiusMeters / (2 * EARTH_RADIUS_M)) / Math.cos(Math.toRadians(maxAbsLat));
+        // 부동소수 오차로 경계의 쌍을 놓치지 않게 칸을 살짝 넓힌다 (넓어도 결과는 같고 확인할 후보만 조금 는다)
+        double latCell = Math.toDegrees(radiusMeters / EARTH_RADIUS_M) * GRID_SLACK;
+        double lngCell = (half < 0.5) ? Math.toDegrees(2 * Math.asin(half)) * GRID_SLACK : Double.NaN;
+        boolean gridOk = !Double.isNaN(lngCell);
+        for (int k = 0; gridOk && k < m; k++) {
+            if (Math.abs(lng[valid[k]]) > 180 - 2 * lngCell) gridOk = false;   // ±180 건너편 이웃은 격자로 못 찾는다
+        }
+        final int valids = m;
+        if (!gridOk) {
+            scoringPool.forRange(valids, (from, to) -> {
+                for (int k = from; k < to; k++) counts[valid[k]] = countNeighbors(n, lat, lng, valid[k], radiusMeters);
+            });
+            return counts;
+        }
+
+        int[] cy = new int[m], cx = new int[m];
+        Map<Long, Integer> fill = new HashMap<>();
+        for (int k = 0; k < m; k++) {
+            int i = valid[k];
+            cy[k] = (int) Math.floor(lat[i] / latCell);
+            cx[k] = (int) Math.floor(lng[i] / lngCell);
+            fill.merge(cellKey(cy[k], cx[k]), 1, Integer::sum);
+        }
+        Map<Long, int[]> cells = new HashMap<>(fill.size() * 4 / 3 + 1);
+        fill.forEach((key, cnt) -> cells.put(key, new int[cnt]));
+        fill.clear();
+        for (int k = 0; k < m; k++) {
+            long key = cellKey(cy[k], cx[k]);
+            cells.get(key)[fill.merge(key, 1, Integer::sum) - 1] = valid[k];
+        }
+
+        // 격자는 다 만든 뒤 읽기만 하므로 행별 계산을 나눠도 된다
+        scoringPool.forRange(valids, (from, to) -> {
+            for (int k = from; k < to; k++) {
+                int i = valid[k];
+                int cnt = 0;
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dx = -1; dx <= 1; dx++) {
+                        int[] cell = cells.get(cellKey(cy[k] + dy, cx[k] + dx));
+                        if (cell == null) continue;
+                        for (int j : cell) {
+                            if (j != i && haversineMeters(lat[i], lng[i], lat[j], lng[j]) <= radiusMeters) cnt++;
+                        }
+                    }
+                }
+                counts[i] = cnt;
+            }
+        });
+        return counts;
+    }
+
+    private static long cellKey(int latCell, int lngCell) {
+        return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+    }
+
+    private int countNeighbors(int n, double[] lat, double[] lng, int idx, double radiusMeters) {
         int cnt = 0;
-        for (int j = 0; j < places.size(); j++) {
+        for (int j = 0; j < n; j++) {
             if (j == idx) continue;
-            Place other = places.get(j);
-            if (!hasLatLng(other)) continue;
-            if (categoryFilter && !safeEquals(center.getCategory(), other.getCategory())) continue;
-            double d = haversineMeters(center.getLat(), center.getLng(), other.getLat(), other.getLng());
+            if (!hasLatLng(lat[j], lng[j])) continue;
+            double d = haversineMeters(lat[idx], lng[idx], lat[j], lng[j]);
             if (d <= radiusMeters) cnt++;
         }
         return cnt;
     }
 
     private static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
-        final double R = 6371000.0;
+        final double R = EARTH_RADIUS_M;
         double dLat = Math.toRadians(lat2 - lat1);
         double dLon = Math.toRadians(lon2 - lon1);
         double a = Math.sin(dLat/2) * Math.sin(dLat/2) +
@@ -78,10 +208,4 @@ public class PopularityService {
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
         return R * c;
     }
-
-    private static boolean safeEquals(String a, String b) {
-        if (a == null && b == null) return true;
-        if (a == null || b == null) return false;
-        return a.equals(b);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package com.example.domo.service;
+
+import com.example.domo.model.Place;
+import com.example.domo.model.PlaceColumns;
+import com.example.domo.model.ScoreColumns;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 전체 places 기준 GEO_DENSITY popularity 를 미리 계산해두는 곳.
+ *
+ * 요청마다 계산하면 그 요청에 든 장소끼리만 이웃을 세게 된다(단건 조회는 항상 이웃 0).
+ * PlaceStore 인덱스가 바뀔 때마다 백그라운드에서 전체 행을 한 번에 계산하고 place_id → popularity 맵을 통째로 교체한다.
+ * 맵에 없는 장소(방금 추가된 행 등)는 다음 계산 전까지 0(모름)으로 둔다. 요청 안에서 그 행들끼리만 세면
+ * 전체 기준 값과 섞여 순위가 틀어진다. 아직 한 번도 계산 전이면 섞일 값이 없으니 예전처럼 요청 안에서 계산한다.
+ */
+@Component
+public class PopularitySnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularitySnapshot.class);
+
+    private final PlaceStore store;
+    private final PopularityService popularityService;
+
+    /** 한 번 계산한 결과. popularity[r] 는 columns 의 r 행 값 */
+    public record Computed(long storeVersion, PlaceColumns columns, int[] popularity, Map<String, Integer> byId) {}
+
+    private volatile Computed current;            // null = 아직 계산 전
+
+    public PopularitySnapshot(PlaceStore store, PopularityService popularityService) {
+        this.store = store;
+        this.popularityService = popularityService;
+    }
+
+    @Scheduled(initialDelayString = "${domo.places.popularity.check-interval-ms:5000}",
+               fixedDelayString = "${domo.places.popularity.check-interval-ms:5000}")
+    public void scheduledRecompute() {
+        try {
+            recompute();
+        } catch (Exception e) {
+            log.warn("[popularity] recompute failed: {} → 이전 값 유지", e.getMessage());
+        }
+    }
+
+    /** PlaceStore 인덱스가 마지막 계산 이후 바뀌었으면 다시 계산한다 */
+    public synchronized void recompute() {
+        PlaceStore.Current c = store.current();   // 버전과 인덱스를 따로 읽으면 짝이 어긋날 수 있다
+        long v = c.version();
+        PlaceSpatialIndex idx = c.index();
+        Computed cur = current;
+        if (idx == null || (cur != null && v == cur.storeVersion())) return;
+
+        long t0 = System.nanoTime();
+        PlaceColumns cols = idx.columns();
+        int n = cols.size();
+        int[] rows = new int[n];
+        for (int r = 0; r < n; r++) rows[r] = r;
+        ScoreColumns scores = new ScoreColumns(n);
+        ScoringPool.Path path = popularityService.computePopularity(cols, rows, n, PopularityService.Mode.GEO_DENSITY, scores);
+
+        // 값이 0~100 이라 Integer 는 캐시된 인스턴스, 키는 인덱스의 place_id 문자열을 그대로 쓴다
+        Map<String, Integer> next = new HashMap<>(n * 4 / 3 + 16);
+        for (int r = 0; r < n; r++) next.put(cols.placeId(r), scores.popularity[r]);
+        current = new Computed(v, cols, scores.popularity, next);
+        log.info("[popularity] computed {} places for store v{} in {} ms ({})",
+                n, v, (System.nanoTime() - t0) / 1_000_000, path);
+    }
+
+    /** 마지막 계산 결과, 아직 없으면 null */
+    public Computed current() {
+        return current;
+    }
+
+    /** 미리 계산한 popularity, 없으면 null */
+    public Integer popularityOf(String placeId) {
+        Computed c = current;
+        return (c == null || placeId == null) ? null : c.byId().get(placeId);
+    }
+
+    /** 단건: 미리 계산한 값, 계산은 됐는데 맵에 없으면 0, 아직 계산 전이면 요청 안에서 계산 */
+    public void applyTo(Place p) {
+        Computed c = current;
+        if (c == null) {
+            popularityService.computePopularity(List.of(p), PopularityService.Mode.GEO_DENSITY);
+            return;
+        }
+        Integer v = (p.getPlaceId() == null) ? null : c.byId().get(p.getPlaceId());
+        p.setPopularity(v == null ? 0 : v);
+    }
+
+    /**
+     * rows[0..n) 의 popularity 를 scores.popularity[pos] 에 채운다. 맵에 없는 행은 0.
+     * 아직 계산 전이면 rows 전체를 한 번에 계산한다 (모든 값이 같은 기준이라 섞이지 않는다).
+     */
+    public void fill(PlaceColumns cols, int[] rows, int n, ScoreColumns scores) {
+        Computed c = current;
+        if (c == null) {
+            popularityService.computePopularity(cols, rows, n, PopularityService.Mode.GEO_DENSITY, scores);
+            return;
+        }
+        Map<String, Integer> m = c.byId();
+        for (int i = 0; i < n; i++) {
+            Integer v = m.get(cols.placeId(rows[i]));
+            scores.popularity[i] = (v == null) ? 0 : v;
+        }
+    }
+
+    public int size() {
+        Computed c = current;
+        return c == null ? 0 : c.byId().size();
+    }
+
+    public long computedVersion() {
+        Computed c = current;
+        return c == null ? 0 : c.storeVersion();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.domo.service;
+
+import com.example.domo.model.ScoreColumns;
+
+/**
+ * ScoreColumns 의 [from, to) 위치에 대해 distanceKm / discount / popularity 로
+ * distanceScore / benefitScore / popularScore / totalScore 를 채운다.
+ * 구현마다 결과는 비트 단위로 같아야 한다(ScoreServiceImpl 의 스칼라 경로가 기준).
+ */
+interface ScoreKernel {
+
+    void score(ScoreColumns s, int from, int to);
+
+    String name();
+}
@@ -3,6 +3,8 @@ package com.example.domo.service;
 import com.example.domo.controller.dto.ItineraryScoreResponse;
 import com.example.domo.model.Itinerary;
 import com.example.domo.model.Place;
+import com.example.domo.model.PlaceColumns;
+import com.example.domo.model.ScoreColumns;
 
 import java.util.Comparator;
 import java.util.List;
@@ -15,6 +17,13 @@ public interface ScoreService {
     void applyScores(List<Place> places, Double userLat, Double userLng);
     Comparator<Place> sortBy(String key);
 
+    // 열 스냅샷 버전: rows[0..n) 행의 점수를 out 의 같은 위치(pos)에 기록 (out.popularity 는 미리 채워둘 것)
+    // 큰 풀은 ScoringPool 에서 나눠 계산하며, 반환값은 탄 경로
+    ScoringPool.Path applyScores(PlaceColumns cols, int[] rows, int n, Double userLat, Double userLng, ScoreColumns out);
+
+    // 정렬 키(sortBy 와 같은 키) 순서로 앞 k 개만: 크기 k 힙으로 O(n log k), 동률은 입력 순서
+    List<Place> topK(List<Place> places, String key, int k);
+
     ItineraryScoreResponse buildResponse(Itinerary itin, boolean includePlaceScores);
     int distanceScore(double routeKm);
 
@@ -3,21 +3,69 @@ package com.example.domo.service;
 import com.example.domo.controller.dto.ItineraryScoreResponse;
 import com.example.domo.model.Itinerary;
 import com.example.domo.model.Place;
+import com.example.domo.model.PlaceColumns;
+import com.example.domo.model.ScoreColumns;
 import com.example.domo.util.HaversineUtil;
+import com.example.domo.util.KoreanCollation;
+import com.example.domo.util.TopK;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.text.Collator;
 import java.util.*;
 
 @Service
 public class ScoreServiceImpl implements ScoreService {
 
-    private static final double MAX_DISTANCE_KM_FOR_SCORE = 15.0; // 이 거리 넘으면 거리점수 0
-    private static final int    MAX_DISTANCE_SCORE        = 40;   // 거리 점수 비중
-    private static final int    MAX_BENEFIT_SCORE         = 40;   // 할인 점수 비중
-    private static final int    MAX_POPULAR_SCORE         = 20;   // 인기 점수 비중
+    // VectorScoreKernel 도 같은 상수를 쓴다
+    static final double MAX_DISTANCE_KM_FOR_SCORE = 15.0; // 이 거리 넘으면 거리점수 0
+    static final int    MAX_DISTANCE_SCORE        = 40;   // 거리 점수 비중
+    static final int    MAX_BENEFIT_SCORE         = 40;   // 할인 점수 비중
+    static final int    MAX_POPULAR_SCORE         = 20;   // 인기 점수 비중
 
-    private static final Collator KOREAN = Collator.getInstance(Locale.KOREA);
+    private static final Logger log = LoggerFactory.getLogger(ScoreServiceImpl.class);
+
+    /** 기준 경로 (벡터 커널이 없거나 꺼져 있을 때, 벡터 구간의 나머지 행) */
+    static final ScoreKernel SCALAR = new ScoreKernel() {
+        @Override
+        public void score(ScoreColumns s, int from, int to) {
+            scoreScalar(s, from, to);
+        }
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+    };
+
+    private final ScoringPool scoringPool;
+    private final ScoreKernel kernel;
+
+    public ScoreServiceImpl(ScoringPool scoringPool,
+                            @Value("${domo.scoring.vector.enabled:true}") boolean vectorEnabled) {
+        this.scoringPool = scoringPool;
+        this.kernel = pickKernel(vectorEnabled);
+        log.info("[score] {} kernel", kernel.name());
+    }
+
+    /**
+     * jdk.incubator.vector 모듈이 올라와 있을 때만 벡터 커널 (--add-modules jdk.incubator.vector).
+     * 모듈이 없으면 VectorScoreKernel 클래스를 읽지도 않는다.
+     */
+    private static ScoreKernel pickKernel(boolean vectorEnabled) {
+        if (!vectorEnabled || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return SCALAR;
+        try {
+            return new VectorScoreKernel();
+        } catch (LinkageError | RuntimeException e) {
+            log.warn("[score] vector kernel unavailable: {} → scalar", e.toString());
+            return SCALAR;
+        }
+    }
+
+    public String kernelName() {
+        return kernel.name();
+    }
 
     @Override
     public void applyScores(List<Place> places, Double userLat, Double userLng) {
@@ -54,12 +102,49 @@ public class ScoreServiceImpl implements ScoreService {
         }
     }
 
+    @Override
+    public ScoringPool.Path applyScores(PlaceColumns cols, int[] rows, int n, Double userLat, Double userLng, ScoreColumns out) {
+        final boolean hasUser = (userLat != null && userLng != null
+                && Double.isFinite(userLat) && Double.isFinite(userLng));
+
+        // 행마다 독립이라 큰 풀은 구간으로 나눠 병렬 처리 (결과는 같다)
+        return scoringPool.forRange(n, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int r = rows[i];
+
+                double distanceKm = out.distanceKm[i];
+                if (hasUser && cols.hasLatLng(r)) {
+                    distanceKm = HaversineUtil.distanceKm(userLat, userLng, cols.lat(r), cols.lng(r));
+                } else if (hasUser) {
+                    distanceKm = 0.0;
+                }
+                if (!Double.isFinite(distanceKm) || distanceKm < 0) distanceKm = 0.0;
+                out.distanceKm[i] = distanceKm;
+
+                out.discount[i] = Math.max(0, cols.discount(r));
+            }
+            // 거리/할인/인기 → 점수는 기본형 배열만 보는 커널로
+            kernel.score(out, from, to);
+        });
+    }
+
+    static void scoreScalar(ScoreColumns out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int discount = Math.max(0, out.discount[i]);
+            int popular  = Math.max(0, out.popularity[i]);
+
+            out.distanceScore[i] = clamp(distanceScoreOf(out.distanceKm[i]), 0, MAX_DISTANCE_SCORE);
+            out.benefitScore[i]  = clamp(scaleLinear(discount, 100, MAX_BENEFIT_SCORE), 0, MAX_BENEFIT_SCORE);
+            out.popularScore[i]  = clamp(scaleLinear(popular, 100, MAX_POPULAR_SCORE), 0, MAX_POPULAR_SCORE);
+            out.totalScore[i]    = out.distanceScore[i] + out.benefitScore[i] + out.popularScore[i];
+        }
+    }
+
     @Override
     public Comparator<Place> sortBy(String key) {
         String k = (key == null ? "total" : key.trim().toLowerCase(Locale.ROOT));
 
-        Comparator<Place> byName = Comparator.comparing(
-                p -> nvl(p.getName(), ""), KOREAN);
+        Comparator<Place> byName = (a, b) -> KoreanCollation.compare(a.nameKey(), b.nameKey());
 
         Comparator<Place> byNear = Comparator.comparingDouble(p -> safeFinite(p.getDistance()));
 
@@ -77,6 +162,12 @@ public class ScoreServiceImpl implements ScoreService {
         };
     }
 
+    @Override
+    public List<Place> topK(List<Place> places, String key, int k) {
+        if (places == null || places.isEmpty() || k <= 0) return List.of();
+        return TopK.of(places, sortBy(key), k);
+    }
+
     @Override
     public int calcDistanceScore(double totalDistanceKm) {
         return distanceScore(totalDistanceKm);
@@ -84,6 +175,10 @@ public class ScoreServiceImpl implements ScoreService {
 
     @Override
     public int distanceScore(double routeKm) {
+        return distanceScoreOf(routeKm);
+    }
+
+    private static int distanceScoreOf(double routeKm) {
         // 0km일 때 MAX, MAX_DISTANCE_KM_FOR_SCORE 이상은 0
         if (!Double.isFinite(routeKm) || routeKm <= 0) return MAX_DISTANCE_SCORE;
         if (routeKm >= MAX_DISTANCE_KM_FOR_SCORE) return 0;
@@ -146,10 +241,6 @@ public class ScoreServiceImpl implements ScoreService {
         return Math.max(0, v);
     }
 
-    private static String nvl(String s, String d) {
-        return (s == null ? d : s);
-    }
-
     private static double safeDistanceKm(Double lat1, Double lng1, Double lat2, Double lng2) {
         if (lat1 == null || lng1 == null || lat2 == null || lng2 == null) return 0.0;
         if (!Double.isFinite(lat1) || !Double.isFinite(lng1) || !Double.isFinite(lat2) || !Double.isFinite(lng2)) return 0.0;
@@ -0,0 +1,126 @@
+package com.example.domo.service;
+
+import com.example.domo.util.IntSort;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 점수 계산 파이프라인(popularity / applyScores / 정렬)을 큰 후보 풀에서만 여러 코어로 나눠 돌리는 전용 ForkJoinPool.
+ * 공용 풀(commonPool)은 parallel stream 등과 섞이므로 쓰지 않는다.
+ *
+ * 행마다 독립인 계산만 나누므로 결과는 순차 경로와 같다. 정렬은 비교자에 위치(pos) 비교를 마지막으로 붙여
+ * 전순서로 만든 뒤 정렬하므로 어느 경로든 같은 순서가 나온다.
+ */
+@Component
+public class ScoringPool {
+
+    public enum Path { SEQUENTIAL, PARALLEL }
+
+    /** [from, to) 구간을 처리한다. 구간끼리는 서로의 결과를 읽지 않아야 한다 */
+    @FunctionalInterface
+    public interface RangeBody {
+        void run(int from, int to);
+    }
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int parallelism;
+
+    private final LongAdder sequentialRuns = new LongAdder();
+    private final LongAdder parallelRuns = new LongAdder();
+
+    public ScoringPool(@Value("${domo.scoring.parallel-threshold:5000}") int threshold,
+                       @Value("${domo.scoring.parallelism:0}") int parallelism) {
+        this.threshold = Math.max(1, threshold);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(this.parallelism, p -> {
+            var t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("scoring-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
+
+    /** n 이 threshold 이상이고 코어가 둘 이상이면 병렬 */
+    public Path pathFor(int n) {
+        return (parallelism > 1 && n >= threshold) ? Path.PARALLEL : Path.SEQUENTIAL;
+    }
+
+    /** [0, n) 을 나눠 body 를 실행하고 어느 경로였는지 돌려준다 */
+    public Path forRange(int n, RangeBody body) {
+        Path path = pathFor(n);
+        if (path == Path.SEQUENTIAL) {
+            sequentialRuns.increment();
+            body.run(0, n);
+        } else {
+            parallelRuns.increment();
+            pool.invoke(new RangeTask(body, 0, n, leafSize(n)));
+        }
+        return path;
+    }
+
+    /** a[from, to) 를 c 로 정렬 (동률은 값이 작은 쪽 먼저) */
+    public Path sort(int[] a, int from, int to, IntSort.IntComparator c) {
+        IntSort.IntComparator total = (x, y) -> {
+            int r = c.compare(x, y);
+            return (r != 0) ? r : Integer.compare(x, y);
+        };
+        int n = to - from;
+        Path path = pathFor(n);
+        if (path == Path.SEQUENTIAL) {
+            sequentialRuns.increment();
+            IntSort.sort(a, from, to, total);
+        } else {
+            parallelRuns.increment();
+            IntSort.parallelSort(a, from, to, total, pool, leafSize(n));
+        }
+        return path;
+    }
+
+    /** 코어당 대략 4 조각, 너무 잘게 쪼개지는 않는다 */
+    private int leafSize(int n) {
+        return Math.max(1024, n / (parallelism * 4));
+    }
+
+    public Map<String, Object> stats() {
+        var m = new LinkedHashMap<String, Object>();
+        m.put("threshold", threshold);
+        m.put("parallelism", parallelism);
+        m.put("sequentialRuns", sequentialRuns.sum());
+        m.put("parallelRuns", parallelRuns.sum());
+        m.put("activeThreads", pool.getActiveThreadCount());
+        m.put("steals", pool.getStealCount());
+        return m;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private final RangeBody body;
+        private final int from, to, leaf;
+
+        RangeTask(RangeBody body, int from, int to, int leaf) {
+            this.body = body; this.from = from; this.to = to; this.leaf = leaf;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leaf) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(body, from, mid, leaf), new RangeTask(body, mid, to, leaf));
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.domo.service;
+
+import com.example.domo.model.Place;
+import com.example.domo.model.PlaceCursor;
+import com.example.domo.util.HaversineUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * places 를 시도(sido) 단위로 여러 DB 에 나눠 둔 구성.
+ *
+ * - 시도가 정해진 조회는 그 시도를 가진 샤드 하나로만 보낸다(없으면 sidos 가 빈 기본 샤드).
+ * - 반경 조회는 샤드마다 실제 데이터의 위/경도 범위(coverage)를 기억해두고, 반경 사각형과 겹치는 샤드에만
+ *   동시에 보낸 뒤 결과를 점수 순(fetchPlacesNear 정렬)으로 합친다. 경계 근처 질의만 여러 샤드를 탄다.
+ * - 최근접 k 개는 가까운 샤드부터 묻고, k 번째 거리가 물어본 반경을 넘을 때만 넓힌다.
+ * - place_id 조회처럼 샤드를 알 수 없는 조회는 모든 샤드에 동시에 보낸다.
+ *
+ * coverage 는 기동 후 첫 반경 조회 때와 주기적으로 다시 잰다. 그 사이 범위 밖에 새로 생긴 장소는
+ * 다음 갱신 전까지 경계 질의에서 빠질 수 있다(메모리 저장소가 켜져 있으면 반경 조회는 어차피 메모리에서 처리).
+ */
+public class ShardedSupabaseService implements SupabaseService, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedSupabaseService.class);
+    private static final double KNN_START_KM = 10;
+    private static final double KNN_MAX_KM = 20_100;       // 지구 반 둘레보다 크면 모든 샤드와 겹친다
+
+    /**
+     * 샤드 하나. jdbc 가 null 이면 coverage 를 재지 않고 항상 대상에 넣는다,
+     * readOnlyTx 가 null 이면 스트리밍을 트랜잭션 없이 호출한다(테스트용 대역 등).
+     * dataSource 는 종료 시 닫을 자원(없으면 null).
+     */
+    public record Shard(String name, Set<String> sidos, SupabaseService db,
+                        JdbcTemplate jdbc, TransactionTemplate readOnlyTx, AutoCloseable dataSource) {}
+
+    private final List<Shard> shards;
+    private final Shard defaultShard;                      // sidos 가 빈 샤드, 없으면 null
+    private final Map<String, Shard> bySido = new HashMap<>();
+    private final Map<Shard, double[]> coverage = new ConcurrentHashMap<>();   // {minLat, maxLat, minLng, maxLng}
+    private volatile boolean coverageLoaded;
+    private final ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+    private final long timeoutMs;
+
+    public ShardedSupabaseService(List<Shard> shards, long timeoutMs) {
+        if (shards.isEmpty()) throw new IllegalArgumentException("no shards");
+        this.shards = List.copyOf(shards);
+        this.timeoutMs = timeoutMs;
+        Shard def = null;
+        for (Shard s : shards) {
+            if (s.sidos().isEmpty()) {
+                if (def != null) throw new IllegalArgumentException("more than one default shard: " + def.name() + ", " + s.name());
+                def = s;
+            }
+            for (String sido : s.sidos()) {
+                Shard prev = bySido.put(sido, s);
+                if (prev != null) throw new IllegalArgumentException("sido " + sido + " mapped to " + prev.name() + " and " + s.name());
+            }
+        }
+        this.defaultShard = def;
+        log.info("[shards] {} shards, sidos={}, default={}", shards.size(), bySido.keySet(), def == null ? "-" : def.name());
+    }
+
+    /* ---------------- 시도로 샤드가 정해지는 조회 ---------------- */
+
+    @Override
+    public List<Place> fetchPlaces(String sido, String sigungu, int limit, int offset) {
+        Shard s = shardFor(sido);
+        if (s != null) return s.db().fetchPlaces(sido, sigungu, limit, offset);
+        // 샤드마다 앞쪽 offset + limit 개를 받아 합친 뒤 잘라낸다
+        List<Place> merged = mergeSorted(fanOut(shards, x -> x.db().fetchPlaces(sido, sigungu, offset + limit, 0)),
+                PlaceSpatialIndex.RANK_ORDER, offset + limit);
+        return new ArrayList<>(merged.subList(Math.min(offset, merged.size()), merged.size()));
+    }
+
+    @Override
+    public List<Place> fetchPlacesAfter(String sido, String sigungu, PlaceCursor after, int limit) {
+        Shard s = shardFor(sido);
+        if (s != null) return s.db().fetchPlacesAfter(sido, sigungu, after, limit);
+        return mergeSorted(fanOut(shards, x -> x.db().fetchPlacesAfter(sido, sigungu, after, limit)),
+                Comparator.comparing(PlaceCursor::of, PlaceCursor.ORDER), limit);
+    }
+
+    @Override
+    public int countPlaces(String sido, String sigungu) {
+        Shard s = shardFor(sido);
+        if (s != null) return s.db().countPlaces(sido, sigungu);
+        int sum = 0;
+        for (int c : fanOut(shards, x -> x.db().countPlaces(sido, sigungu))) sum += c;
+        return sum;
+    }
+
+    @Override
+    public void streamPlaces(String sido, String sigungu, List<String> categories, Consumer<Place> sink) {
+        Shard s = shardFor(sido);
+        // 내보내기는 순서대로 한 샤드씩 (sink 는 응답 스트림 하나라 동시에 쓰면 안 된다)
+        for (Shard x : (s != null ? List.of(s) : shards)) {
+            if (x.readOnlyTx() == null) {
+                x.db().streamPlaces(sido, sigungu, categories, sink);
+            } else {
+                x.readOnlyTx().executeWithoutResult(st -> x.db().streamPlaces(sido, sigungu, categories, sink));
+            }
+        }
+    }
+
+    /* ---------------- place_id 조회: 모든 샤드 ---------------- */
+
+    @Override
+    public List<Place> fetchPlacesInOrder(List<String> placeIds) {
+        if (placeIds == null || placeIds.isEmpty()) return Collections.emptyList();
+        return SupabaseServiceImpl.inRequestOrder(placeIds, fetchByPlaceIds(placeIds));
+    }
+
+    @Override
+    public Map<String, Place> fetchByPlaceIds(Collection<String> placeIds) {
+        if (placeIds == null || placeIds.isEmpty()) return Collections.emptyMap();
+        Map<String, Place> out = new LinkedHashMap<>();
+        for (Map<String, Place> m : fanOut(shards, x -> x.db().fetchByPlaceIds(placeIds))) out.putAll(m);
+        return out;
+    }
+
+    @Override
+    public Optional<Place> fetchByPlaceId(String placeId) {
+        for (Optional<Place> p : fanOut(shards, x -> x.db().fetchByPlaceId(placeId))) {
+            if (p.isPresent()) return p;
+        }
+        return Optional.empty();
+    }
+
+    /* ---------------- 반경/최근접: coverage 가 겹치는 샤드만 ---------------- */
+
+    @Override
+    public Optional<Place> fetchNearestPlace(Double lat, Double lng, double radiusKm) {
+        if (lat == null || lng == null) return Optional.empty();
+        Place best = null;
+        double bestD = Double.MAX_VALUE;
+        for (Optional<Place> o : fanOut(shardsNear(lat, lng, radiusKm), x -> x.db().fetchNearestPlace(lat, lng, radiusKm))) {
+            if (o.isEmpty()) continue;
+            double d = HaversineUtil.distanceKm(lat, lng, o.get().getLat(), o.get().getLng());
+            if (d < bestD) { bestD = d; best = o.get(); }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    @Override
+    public List<Place> fetchPlacesNear(double centerLat, double centerLng, double radiusKm, List<String> categories, int limit) {
+        return mergeSorted(fanOut(shardsNear(centerLat, centerLng, radiusKm),
+                        x -> x.db().fetchPlacesNear(centerLat, centerLng, radiusKm, categories, limit)),
+                PlaceSpatialIndex.RANK_ORDER, Math.max(1, limit));
+    }
+
+    @Override
+    public OptionalDouble kthNearestDistanceKm(double centerLat, double centerLng, double maxRadiusKm, List<String> categories, int k) {
+        int kk = Math.max(1, k);
+        List<Shard> near = shardsNear(centerLat, centerLng, maxRadiusKm);
+        if (near.size() == 1) return near.get(0).db().kthNearestDistanceKm(centerLat, centerLng, maxRadiusKm, categories, kk);
+
+        // 샤드마다 가까운 k 개를 받아 전체에서 k 번째 거리
+        List<Place> merged = mergeSorted(fanOut(near, x -> x.db().fetchKNearest(centerLat, centerLng, kk, categories)),
+                byDistanceFrom(centerLat, centerLng), kk);
+        if (merged.size() < kk) return OptionalDouble.empty();
+        Place p = merged.get(kk - 1);
+        double d = HaversineUtil.distanceKm(centerLat, centerLng, p.getLat(), p.getLng());
+        return d <= maxRadiusKm ? OptionalDouble.of(d) : OptionalDouble.empty();
+    }
+
+    /**
+     * 가까운 샤드부터: 반경 r 과 겹치는 샤드에서 k 개를 받아, k 번째가 r 안이면 다른 샤드에 더 가까운 장소는 없다.
+     * 모자라면 r 을 넓혀 새로 겹친 샤드에만 더 묻는다.
+     */
+    @Override
+    public List<Place> fetchKNearest(double lat, double lng, int k, List<String> categories) {
+        int kk = Math.max(0, k);
+        if (kk == 0) return new ArrayList<>();
+        Comparator<Place> byDistance = byDistanceFrom(lat, lng);
+        Set<Shard> asked = new HashSet<>();
+        List<List<Place>> parts = new ArrayList<>();
+        for (double r = KNN_START_KM; ; r = Math.min(r * 4, KNN_MAX_KM)) {
+            List<Shard> fresh = new ArrayList<>();
+            for (Shard x : shardsNear(lat, lng, r)) if (asked.add(x)) fresh.add(x);
+            parts.addAll(fanOut(fresh, x -> x.db().fetchKNearest(lat, lng, kk, categories)));
+
+            List<Place> merged = mergeSorted(parts, byDistance, kk);
+            if (r >= KNN_MAX_KM) return merged;
+            if (merged.size() == kk) {
+                Place last = merged.get(kk - 1);
+                if (HaversineUtil.distanceKm(lat, lng, last.getLat(), last.getLng()) <= r) return merged;
+            }
+        }
+    }
+
+    /* ---------------- 기타 ---------------- */
+
+    /**
+     * 모든 샤드에 변경 피드가 있어야 한다. 워터마크는 샤드별 최댓값
+     * (샤드 DB 시계 차이는 PlaceStore 의 겹침 구간 안이어야 한다).
+     */
+    @Override
+    public Optional<PlaceChangeSet> fetchPlaceChanges(Instant since) {
+        List<Optional<PlaceChangeSet>> parts = fanOut(shards, x -> x.db().fetchPlaceChanges(since));
+        List<Place> upserts = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        Instant wm = since;
+        for (Optional<PlaceChangeSet> o : parts) {
+            if (o.isEmpty()) return Optional.empty();
+            upserts.addAll(o.get().upserts());
+            deleted.addAll(o.get().deletedIds());
+            if (wm == null || o.get().watermark().isAfter(wm)) wm = o.get().watermark();
+        }
+        return Optional.of(new PlaceChangeSet(upserts, deleted, wm));
+    }
+
+    /** 가장 약한 샤드 기준 */
+    @Override
+    public GeoStrategy geoStrategy() {
+        GeoStrategy weakest = GeoStrategy.EARTH_BOX_SQL;
+        for (Shard s : shards) {
+            if (s.db().geoStrategy() == GeoStrategy.BOUNDING_BOX_SQL) weakest = GeoStrategy.BOUNDING_BOX_SQL;
+        }
+        return weakest;
+    }
+
+    /** 샤드별 SupabaseServiceImpl 은 빈이 아니라 자기 기동 확인을 못 받는다 → 여기서 대신 */
+    @EventListener(ApplicationReadyEvent.class)
+    public void probeOnStartup() {
+        for (Shard s : shards) {
+            log.info("[shards] {} geo strategy = {}", s.name(), s.db().geoStrategy());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${domo.sharding.coverage-refresh-ms:600000}",
+               fixedDelayString = "${domo.sharding.coverage-refresh-ms:600000}")
+    public void refreshCoverage() {
+        for (Shard s : shards) {
+            if (s.jdbc() == null) continue;
+            try {
+                Map<String, Object> r = s.jdbc().queryForMap(
+                        "SELECT min(lat) AS min_lat, max(lat) AS max_lat, min(lng) AS min_lng, max(lng) AS max_lng " +
+                                "FROM places WHERE lat IS NOT NULL AND lng IS NOT NULL");
+                if (r.get("min_lat") == null) {
+                    coverage.put(s, new double[0]);   // 좌표 있는 장소 없음 → 반경 조회 대상 아님
+                } else {
+                    coverage.put(s, new double[]{ num(r.get("min_lat")), num(r.get("max_lat")),
+                            num(r.get("min_lng")), num(r.get("max_lng")) });
+                }
+            } catch (Exception e) {
+                coverage.remove(s);                   // 모르면 항상 대상에 넣는다
+                log.warn("[shards] coverage of {} failed: {}", s.name(), e.getMessage());
+            }
+        }
+        coverageLoaded = true;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+        for (Shard s : shards) {
+            if (s.dataSource() == null) continue;
+            try {
+                s.dataSource().close();
+            } catch (Exception e) {
+                log.debug("[shards] close {} failed: {}", s.name(), e.getMessage());
+            }
+        }
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    /** 시도가 정해졌으면 그 샤드(없으면 기본 샤드), 시도가 없거나 어디에도 속하지 않으면 null = 전체 */
+    private Shard shardFor(String sido) {
+        if (sido == null || sido.isEmpty()) return null;
+        Shard s = bySido.get(sido);
+        return s != null ? s : defaultShard;
+    }
+
+    List<Shard> shardsNear(double lat, double lng, double radiusKm) {
+        if (!coverageLoaded) refreshCoverage();
+        double[] q = HaversineUtil.boundingBox(lat, lng, radiusKm);
+        List<Shard> out = new ArrayList<>(shards.size());
+        for (Shard s : shards) {
+            double[] c = coverage.get(s);
+            if (c == null) { out.add(s); continue; }
+            if (c.length == 0) continue;
+            boolean overlaps = c[0] <= q[1] && q[0] <= c[1] && c[2] <= q[3] && q[2] <= c[3];
+            if (overlaps) out.add(s);
+        }
+        return out;
+    }
+
+    /** 샤드마다 병렬로 호출하고 샤드 순서대로 결과를 모은다. 하나라도 실패하면 전체 실패 */
+    private <T> List<T> fanOut(List<Shard> targets, Function<Shard, T> call) {
+        if (targets.isEmpty()) return List.of();
+        if (targets.size() == 1) return List.of(call.apply(targets.get(0)));
+
+        List<Future<T>> futures = new ArrayList<>(targets.size());
+        for (Shard s : targets) futures.add(pool.submit(() -> call.apply(s)));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<T> out = new ArrayList<>(targets.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    out.add(futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (ExecutionException e) {
+                    Throwable c = e.getCause();
+                    if (c instanceof RuntimeException re) throw re;
+                    throw new IllegalStateException("shard " + targets.get(i).name() + " failed", c);
+                } catch (TimeoutException e) {
+                    throw new IllegalStateException("shard " + targets.get(i).name() + " timed out after " + timeoutMs + " ms");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for shards", e);
+        } finally {
+            for (Future<T> f : futures) f.cancel(true);
+        }
+        return out;
+    }
+
+    /** 각자 정렬된 목록들을 합쳐 앞에서 limit 개 */
+    private static List<Place> mergeSorted(List<List<Place>> parts, Comparator<Place> order, int limit) {
+        if (parts.size() == 1) {
+            List<Place> only = parts.get(0);
+            return only.size() <= limit ? only : new ArrayList<>(only.subList(0, limit));
+        }
+        List<Place> all = new ArrayList<>();
+        for (List<Place> p : parts) all.addAll(p);
+        all.sort(order);
+        return all.size() <= limit ? all : new ArrayList<>(all.subList(0, limit));
+    }
+
+    private static Comparator<Place> byDistanceFrom(double lat, double lng) {
+        return Comparator.comparingDouble(p -> HaversineUtil.distanceKm(lat, lng, p.getLat(), p.getLng()));
+    }
+
+    private static double num(Object o) {
+        return ((Number) o).doubleValue();
+    }
+}
@@ -1,18 +1,46 @@
 package com.example.domo.service;
 
 import com.example.domo.model.Place;
+import com.example.domo.model.PlaceCursor;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.function.Consumer;
 
 public interface SupabaseService {
-    // 기존 메서드들 (그대로 유지)
+    // 기존 메서드들 (그대로 유지). fetchPlacesAfter 와 같은 순서 — offset 은 커서 없는 예전 page 요청용, 이어 읽기는 fetchPlacesAfter
     List<Place> fetchPlaces(String sido, String sigungu, int limit, int offset);
+
+    // ✅ 내보내기용: 조건(빈 값 = 전체)에 맞는 행을 place_id 순으로 서버 측 커서에서 한 행씩 sink 에 넘긴다 (목록을 만들지 않음)
+    void streamPlaces(String sido, String sigungu, List<String> categories, Consumer<Place> sink);
+
+    // ✅ 키셋 페이지: (totalscore DESC, discountpercent DESC, place_id ASC) 순으로 after 다음 limit 개 (after 가 null 이면 처음부터)
+    List<Place> fetchPlacesAfter(String sido, String sigungu, PlaceCursor after, int limit);
     List<Place> fetchPlacesInOrder(List<String> placeIds);
     Optional<Place> fetchByPlaceId(String placeId);
+
+    // ✅ 여러 장소를 쿼리 한 번으로 (uuid[] 하나만 바인딩). 키는 요청한 문자열 그대로, 없는/형식이 틀린 id 는 빠진다
+    Map<String, Place> fetchByPlaceIds(Collection<String> placeIds);
     int countPlaces(String sido, String sigungu);
     Optional<Place> fetchNearestPlace(Double lat, Double lng, double radiusKm);
 
     // ✅ 추가: 기준 좌표/반경으로 DB에서만 후보 조회 (카테고리 필터 옵션)
     List<Place> fetchPlacesNear(double centerLat, double centerLng, double radiusKm, List<String> categories, int limit);
+
+    // ✅ 반경 자동 확장용: 기준 좌표에서 k번째로 가까운 후보까지의 거리(km). maxRadiusKm 안에 k개가 없으면 empty
+    OptionalDouble kthNearestDistanceKm(double centerLat, double centerLng, double maxRadiusKm, List<String> categories, int k);
+
+    // ✅ 기준 좌표에서 가까운 순 최대 k곳 (카테고리 필터 옵션, 반경 제한 없음)
+    List<Place> fetchKNearest(double lat, double lng, int k, List<String> categories);
+
+    // ✅ 스냅샷 증분 갱신용: since 이후 바뀐 행과 삭제된 place_id (since 가 null 이면 현재 워터마크만)
+    //    변경 피드(db/schema/V2)가 없는 DB 면 empty
+    Optional<PlaceChangeSet> fetchPlaceChanges(Instant since);
+
+    // 현재 반경 조회에 쓰이는 경로 (기동 시 한 번 결정)
+    GeoStrategy geoStrategy();
 }
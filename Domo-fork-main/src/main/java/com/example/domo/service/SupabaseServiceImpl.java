@@ -1,70 +1,246 @@
 package com.example.domo.service;
 
 import com.example.domo.model.Place;
+import com.example.domo.model.PlaceCursor;
+import com.example.domo.util.CategoryDictionary;
+import com.example.domo.util.HaversineUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class SupabaseServiceImpl implements SupabaseService {
 
+    private static final Logger log = LoggerFactory.getLogger(SupabaseServiceImpl.class);
+
     private final JdbcTemplate jdbc;
-    private final PlaceRowMapper rowMapper = new PlaceRowMapper();
+
+    /**
+     * places 조회 공통 컬럼 목록 (PlaceRowMapper 가 읽는 컬럼). 뒤에 WHERE/ORDER BY 만 붙여 쓴다.
+     * 쿼리마다 SQL 문자열이 같은 모양이라 드라이버/서버의 prepared statement 재사용에도 유리하다.
+     */
+    private static final String PLACE_COLUMNS =
+            "place_id, name, category, address, lat, lng, " +
+                    "COALESCE(discountpercent,0) AS discountpercent, " +
+                    "COALESCE(totalscore,0) AS totalscore, " +
+                    "sido, sigungu, COALESCE(benefit,'') AS benefit ";
+    private static final String SELECT_PLACES = "SELECT " + PLACE_COLUMNS + "FROM places ";
+    private static final String SELECT_PLACES_WITH_UPDATED_AT = "SELECT " + PLACE_COLUMNS + ", updated_at FROM places ";
+
+    /**
+     * 랭킹/키셋 정렬 키 (PlaceSpatialIndex.RANK_ORDER, PlaceCursor.ORDER 와 같은 순서). totalscore 는 Math.round 와 같은 floor(x + 0.5), discountpercent 는 (int) 캐스트와 같은 trunc —
+     * PlaceRowMapper 가 Place 에 넣는 정수(= PlaceCursor 값)와 같아야 한다. db/schema/V4 인덱스 식과 글자까지 같게 유지.
+     */
+    private static final String RANK_KEY =
+            "-floor(COALESCE(totalscore,0) + 0.5), -trunc(COALESCE(discountpercent,0)), place_id";
+
+    /**
+     * 확장 없이 거리순 정렬할 때 쓰는 하버사인 hav(θ) (θ 와 단조 관계라 asin/sqrt 는 생략). 바인딩: lat, lat, lng.
+     * 극/날짜변경선에서도 HaversineUtil 과 같은 순서가 된다.
+     */
+    private static final String HAVERSINE_ORDER =
+            "power(sin(radians(lat - ?) / 2), 2) + " +
+                    "cos(radians(?)) * cos(radians(lat)) * power(sin(radians(lng - ?) / 2), 2)";
+
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private volatile GeoStrategy strategy;   // probeGeoStrategy() 가 한 번 확정
+    private volatile long probeRetryAt;      // 확인 실패 시 다시 확인할 System.nanoTime(), 그 전까지는 BOUNDING_BOX_SQL
+
+    /** capability 확인이 실패한 뒤 다시 확인하기까지 (그 사이 요청마다 카탈로그 조회/예외를 반복하지 않도록) */
+    private static final long PROBE_RETRY_NANOS = 60_000_000_000L;
+    private volatile Boolean changeFeed;     // updated_at / place_deletions 존재 여부 (확인 전 null)
+
+    /**
+     * 반경 조건: earth_box 로 GiST 인덱스(places_ll_to_earth_gist)에서 먼저 걸러내고,
+     * 살아남은 행에만 정확한 earth_distance 를 적용한다. 바인딩 순서는 addRadiusArgs 참고.
+     */
+    private static final String WITHIN_RADIUS =
+            "earth_box(ll_to_earth(?, ?), ? * 1000) @> ll_to_earth(lat, lng) " +
+                    "AND earth_distance(ll_to_earth(?, ?), ll_to_earth(lat, lng)) <= ? * 1000 ";
 
     public SupabaseServiceImpl(JdbcTemplate jdbc) { this.jdbc = jdbc; }
 
+    /** 쿼리마다 새 매퍼 (컬럼 위치를 ResultSet 단위로 기억하므로 공유하지 않는다) */
+    private static PlaceRowMapper placeRows() { return new PlaceRowMapper(); }
+
+    private static void addRadiusArgs(List<Object> args, double lat, double lng, double radiusKm) {
+        args.add(lat); args.add(lng); args.add(radiusKm);
+        args.add(lat); args.add(lng); args.add(radiusKm);
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public List<Place> fetchPlaces(String sido, String sigungu, int limit, int offset) {
         String sql =
-                "SELECT place_id, name, category, address, lat, lng, " +
-                        "       COALESCE(discountpercent,0) AS discountpercent, " +
-                        "       COALESCE(totalscore,0)      AS totalscore, " +
-                        "       sido, sigungu, COALESCE(benefit,'') AS benefit " +
-                        "FROM places " +
+                SELECT_PLACES +
                         "WHERE (COALESCE(?, '') = '' OR sido = ?) " +
                         "  AND (COALESCE(?, '') = '' OR sigungu = ?) " +
-                        "ORDER BY totalscore DESC NULLS LAST, discountpercent DESC NULLS LAST " +
+                        "ORDER BY " + RANK_KEY + " " +
                         "LIMIT ? OFFSET ?";
 
-        return jdbc.query(sql, rowMapper,
+        return jdbc.query(sql, placeRows(),
                 sido, sido,
                 sigungu, sigungu,
                 limit, offset
         );
     }
 
+    /**
+     * Postgres 드라이버는 autocommit 이 꺼져 있고 fetchSize 가 있을 때만 서버 측 커서로 나눠 읽는다.
+     * 그래서 읽기 전용 트랜잭션 안에서 EXPORT_FETCH_SIZE 행씩 받아 바로 sink 로 넘긴다.
+     * sink 에서 예외가 나면(클라이언트 연결 끊김 등) 쿼리도 그 자리에서 중단된다.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamPlaces(String sido, String sigungu, List<String> categories, Consumer<Place> sink) {
+        StringBuilder sql = new StringBuilder(SELECT_PLACES + "WHERE TRUE ");
+        List<Object> args = new ArrayList<>();
+        if (sido != null && !sido.isEmpty()) { sql.append("AND sido = ? "); args.add(sido); }
+        if (sigungu != null && !sigungu.isEmpty()) { sql.append("AND sigungu = ? "); args.add(sigungu); }
+        appendCategoryFilter(sql, args, categories);
+        sql.append("ORDER BY place_id");
+
+        PlaceRowMapper mapper = placeRows();
+        int[] rowNum = { 0 };
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) ps.setObject(i + 1, args.get(i));
+            return ps;
+        }, rs -> {
+            sink.accept(mapper.mapRow(rs, rowNum[0]++));
+        });
+    }
+
+    /**
+     * 정렬 키를 (-totalscore, -discountpercent, place_id) 오름차순 하나로 맞춰 행 비교 (a,b,c) > (?,?,?) 로 자른다.
+     * 점수는 PlaceRowMapper 가 Place 에 담는 정수와 같게 반올림/버림한 값으로 비교한다(RANK_KEY).
+     * 원래 값으로 비교하면 88.4 점 행이 커서 88 보다 앞이라 건너뛰고, 87.6 점 행은 다음 페이지에 또 나온다.
+     * db/schema/V4 의 식 인덱스와 같은 식이어야 인덱스 탐색 한 번 + limit 행 읽기로 끝난다.
+     * 지역 조건은 인덱스 앞 열과 맞도록 값이 있을 때만 붙인다.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Place> fetchPlacesAfter(String sido, String sigungu, PlaceCursor after, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_PLACES + "WHERE TRUE ");
+        List<Object> args = new ArrayList<>();
+        if (sido != null && !sido.isEmpty()) {
+            sql.append("AND sido = ? ");
+            args.add(sido);
+            if (sigungu != null && !sigungu.isEmpty()) {
+                sql.append("AND sigungu = ? ");
+                args.add(sigungu);
+            }
+        } else if (sigungu != null && !sigungu.isEmpty()) {
+            sql.append("AND sigungu = ? ");
+            args.add(sigungu);
+        }
+        if (after != null) {
+            sql.append("AND (").append(RANK_KEY).append(") > (?, ?, ?::uuid) ");
+            args.add(-after.totalScore());
+            args.add(-after.discountPercent());
+            args.add(after.placeId());
+        }
+        sql.append("ORDER BY ").append(RANK_KEY).append(" LIMIT ?");
+        args.add(limit);
+        return jdbc.query(sql.toString(), placeRows(), args.toArray());
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public List<Place> fetchPlacesInOrder(List<String> placeIds) {
         if (placeIds == null || placeIds.isEmpty()) return Collections.emptyList();
-        String inSql = placeIds.stream().map(id -> "?::uuid").collect(Collectors.joining(","));
+        return inRequestOrder(placeIds, fetchByPlaceIds(placeIds));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Place> fetchByPlaceIds(Collection<String> placeIds) {
+        Map<String, List<String>> requested = groupByCanonicalId(placeIds);
+        if (requested.isEmpty()) return Collections.emptyMap();
+
+        // 개수와 상관없이 SQL 문자열이 하나라서 서버 쪽 prepared statement 가 재사용된다
         String sql =
-                "SELECT place_id, name, category, address, lat, lng, " +
-                        "       COALESCE(discountpercent,0) AS discountpercent, " +
-                        "       COALESCE(totalscore,0)      AS totalscore, " +
-                        "       sido, sigungu, COALESCE(benefit,'') AS benefit " +
-                        "FROM places WHERE place_id IN (" + inSql + ")";
-        List<Place> fetched = jdbc.query(sql, rowMapper, placeIds.toArray());
-        Map<String,Integer> order = new HashMap<>();
-        for (int i=0;i<placeIds.size();i++) order.put(placeIds.get(i), i);
-        fetched.sort(Comparator.comparingInt(p -> order.getOrDefault(p.getPlaceId(), Integer.MAX_VALUE)));
-        return fetched;
+                SELECT_PLACES +
+                        "WHERE place_id = ANY(?)";
+        Object[] ids = requested.keySet().toArray();
+        List<Place> fetched = jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            return ps;
+        }, placeRows());
+
+        Map<String, Place> out = new LinkedHashMap<>();
+        for (Place p : fetched) {
+            List<String> keys = requested.get(canonicalId(p.getPlaceId()));
+            if (keys == null) continue;
+            // 같은 uuid 를 다른 표기로 여러 번 요청했으면 키마다 별도 객체
+            for (int i = 0; i < keys.size(); i++) out.put(keys.get(i), i == 0 ? p : p.copy());
+        }
+        return out;
+    }
+
+    /** uuid 표준 표기(소문자) → 그 uuid 를 가리키는 요청 문자열들. 형식이 틀린 id 는 뺀다 */
+    static Map<String, List<String>> groupByCanonicalId(Collection<String> placeIds) {
+        Map<String, List<String>> m = new LinkedHashMap<>();
+        if (placeIds == null) return m;
+        for (String id : placeIds) {
+            String c = canonicalId(id);
+            if (c == null) continue;
+            List<String> keys = m.computeIfAbsent(c, k -> new ArrayList<>(1));
+            if (!keys.contains(id)) keys.add(id);
+        }
+        return m;
+    }
+
+    /** uuid 형식이면 표준 표기, 아니면 null */
+    static String canonicalId(String id) {
+        if (id == null || id.isBlank()) return null;
+        try {
+            return UUID.fromString(id.trim()).toString();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** 요청 순서대로, 같은 장소는 처음 한 번만 */
+    static List<Place> inRequestOrder(List<String> placeIds, Map<String, Place> byId) {
+        List<Place> out = new ArrayList<>(byId.size());
+        Set<String> seen = new HashSet<>();
+        for (String id : placeIds) {
+            Place p = byId.get(id);
+            if (p != null && seen.add(p.getPlaceId())) out.add(p);
+        }
+        return out;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Place> fetchByPlaceId(String placeId) {
         String sql =
-                "SELECT place_id, name, category, address, lat, lng, " +
-                        "       COALESCE(discountpercent,0) AS discountpercent, " +
-                        "       COALESCE(totalscore,0)      AS totalscore, " +
-                        "       sido, sigungu, COALESCE(benefit,'') AS benefit " +
-                        "FROM places WHERE place_id = ?::uuid";
-        var list = jdbc.query(sql, rowMapper, placeId);
+                SELECT_PLACES +
+                        "WHERE place_id = ?::uuid";
+        var list = jdbc.query(sql, placeRows(), placeId);
         return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public int countPlaces(String sido, String sigungu) {
         String sql =
                 "SELECT COUNT(*) FROM places " +
@@ -75,20 +251,22 @@ public class SupabaseServiceImpl implements SupabaseService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Place> fetchNearestPlace(Double lat, Double lng, double radiusKm) {
+        if (geoStrategy() == GeoStrategy.BOUNDING_BOX_SQL) {
+            return fetchInBox(lat, lng, radiusKm, null).stream()
+                    .min(Comparator.comparingDouble(p -> HaversineUtil.distanceKm(lat, lng, p.getLat(), p.getLng())));
+        }
+
         String sql =
-                "SELECT place_id, name, category, address, lat, lng, " +
-                        "       COALESCE(discountpercent,0) AS discountpercent, " +
-                        "       COALESCE(totalscore,0)      AS totalscore, " +
-                        "       sido, sigungu, COALESCE(benefit,'') AS benefit " +
-                        "FROM places " +
-                        "WHERE earth_distance(ll_to_earth(?, ?), ll_to_earth(lat, lng)) <= ? * 1000 " +
+                SELECT_PLACES +
+                        "WHERE " + WITHIN_RADIUS +
                         "ORDER BY earth_distance(ll_to_earth(?, ?), ll_to_earth(lat, lng)) ASC " +
                         "LIMIT 1";
 
-        List<Place> list = jdbc.query(sql, rowMapper,
-                lat, lng,
-                radiusKm,
+        List<Place> list = jdbc.query(sql, placeRows(),
+                lat, lng, radiusKm,
+                lat, lng, radiusKm,
                 lat, lng
         );
 
@@ -97,34 +275,220 @@ public class SupabaseServiceImpl implements SupabaseService {
 
     /** ✅ 기준 좌표/반경으로 DB에서만 후보 조회 (카테고리 필터 옵션) */
     @Override
+    @Transactional(readOnly = true)
     public List<Place> fetchPlacesNear(double centerLat, double centerLng, double radiusKm, List<String> categories, int limit) {
+        if (geoStrategy() == GeoStrategy.BOUNDING_BOX_SQL) {
+            return fetchInBox(centerLat, centerLng, radiusKm, categories).stream()
+                    .sorted(PlaceSpatialIndex.RANK_ORDER)
+                    .limit(Math.max(1, limit))
+                    .collect(Collectors.toList());
+        }
+
         // earthdistance 확장을 사용하는 원쿼리 (PostgreSQL)
         String base =
-                "SELECT place_id, name, category, address, lat, lng, " +
-                        "       COALESCE(discountpercent,0) AS discountpercent, " +
-                        "       COALESCE(totalscore,0)      AS totalscore, " +
-                        "       sido, sigungu, COALESCE(benefit,'') AS benefit " +
-                        "FROM places " +
-                        "WHERE earth_distance(ll_to_earth(?, ?), ll_to_earth(lat, lng)) <= ? * 1000 ";
+                SELECT_PLACES +
+                        "WHERE " + WITHIN_RADIUS;
 
         List<Object> args = new ArrayList<>();
-        args.add(centerLat);
-        args.add(centerLng);
-        args.add(radiusKm);
+        addRadiusArgs(args, centerLat, centerLng, radiusKm);
 
         StringBuilder sql = new StringBuilder(base);
-        if (categories != null && !categories.isEmpty()) {
-            // lower(category) IN (?, ?, ...)
-            String in = categories.stream().map(s -> "?").collect(Collectors.joining(","));
-            sql.append("AND lower(category) IN (").append(in).append(") ");
-            for (String c : categories) args.add(c == null ? null : c.toLowerCase());
-        }
+        appendCategoryFilter(sql, args, categories);
 
-        sql.append("ORDER BY totalscore DESC NULLS LAST, discountpercent DESC NULLS LAST, name ASC ");
+        sql.append("ORDER BY ").append(RANK_KEY).append(" ");
         sql.append("LIMIT ?");
 
         args.add(Math.max(1, limit));
 
-        return jdbc.query(sql.toString(), rowMapper, args.toArray());
+        return jdbc.query(sql.toString(), placeRows(), args.toArray());
+    }
+
+    /** ✅ 거리순 단일 쿼리로 k번째 후보까지의 거리만 조회 (반경 단계별 반복 조회 대체) */
+    @Override
+    @Transactional(readOnly = true)
+    public OptionalDouble kthNearestDistanceKm(double centerLat, double centerLng, double maxRadiusKm, List<String> categories, int k) {
+        if (geoStrategy() == GeoStrategy.BOUNDING_BOX_SQL) {
+            double[] d = fetchInBox(centerLat, centerLng, maxRadiusKm, categories).stream()
+                    .mapToDouble(p -> HaversineUtil.distanceKm(centerLat, centerLng, p.getLat(), p.getLng()))
+                    .sorted().toArray();
+            int kk = Math.max(1, k);
+            return d.length < kk ? OptionalDouble.empty() : OptionalDouble.of(d[kk - 1]);
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT earth_distance(ll_to_earth(?, ?), ll_to_earth(lat, lng)) AS d " +
+                        "FROM places WHERE " + WITHIN_RADIUS);
+
+        List<Object> args = new ArrayList<>();
+        args.add(centerLat);
+        args.add(centerLng);
+        addRadiusArgs(args, centerLat, centerLng, maxRadiusKm);
+        appendCategoryFilter(sql, args, categories);
+
+        sql.append("ORDER BY d ASC LIMIT 1 OFFSET ?");
+        args.add(Math.max(0, k - 1));
+
+        List<Double> list = jdbc.queryForList(sql.toString(), Double.class, args.toArray());
+        return (list.isEmpty() || list.get(0) == null) ? OptionalDouble.empty() : OptionalDouble.of(list.get(0) / 1000.0);
+    }
+
+    /**
+     * ✅ k-최근접: cube 의 <-> 연산자로 GiST 인덱스를 거리순으로 훑는다(KNN 스캔).
+     * 확장이 없으면 하버사인 식(HAVERSINE_ORDER)으로 거리순 정렬한 쿼리 한 번으로 k개를 받는다
+     * (인덱스는 못 타지만 반경을 넓혀가며 여러 번 조회하지 않는다).
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Place> fetchKNearest(double lat, double lng, int k, List<String> categories) {
+        if (k <= 0) return new ArrayList<>();
+
+        StringBuilder sql = new StringBuilder(SELECT_PLACES + "WHERE lat IS NOT NULL AND lng IS NOT NULL ");
+        List<Object> args = new ArrayList<>();
+        appendCategoryFilter(sql, args, categories);
+        if (geoStrategy() == GeoStrategy.BOUNDING_BOX_SQL) {
+            sql.append("ORDER BY ").append(HAVERSINE_ORDER).append(", place_id LIMIT ?");
+            args.add(lat);
+            args.add(lat);
+            args.add(lng);
+        } else {
+            sql.append("ORDER BY ll_to_earth(lat, lng) <-> ll_to_earth(?, ?) LIMIT ?");
+            args.add(lat);
+            args.add(lng);
+        }
+        args.add(k);
+        return jdbc.query(sql.toString(), placeRows(), args.toArray());
+    }
+
+    /** 워터마크가 replica 지연 때문에 건너뛰지 않도록 읽기 전용 표시 없이(= primary 에서) 읽는다 */
+    @Override
+    public Optional<PlaceChangeSet> fetchPlaceChanges(Instant since) {
+        if (!supportsChangeFeed()) return Optional.empty();
+
+        if (since == null) {
+            Timestamp head = jdbc.queryForObject(
+                    "SELECT GREATEST((SELECT max(updated_at) FROM places), " +
+                            "                (SELECT max(deleted_at) FROM place_deletions))",
+                    Timestamp.class);
+            Instant wm = (head == null) ? Instant.EPOCH : head.toInstant();
+            return Optional.of(new PlaceChangeSet(List.of(), List.of(), wm));
+        }
+
+        Instant[] wm = { since };
+        PlaceRowMapper mapper = placeRows();
+        List<Place> upserts = new ArrayList<>();
+        jdbc.query(
+                SELECT_PLACES_WITH_UPDATED_AT +
+                        "WHERE updated_at > ? ORDER BY updated_at",
+                rs -> {
+                    upserts.add(mapper.mapRow(rs, upserts.size()));
+                    wm[0] = later(wm[0], rs.getTimestamp("updated_at"));
+                },
+                Timestamp.from(since));
+
+        List<String> deleted = new ArrayList<>();
+        jdbc.query(
+                "SELECT place_id::text AS place_id, deleted_at FROM place_deletions " +
+                        "WHERE deleted_at > ? ORDER BY deleted_at",
+                rs -> {
+                    deleted.add(rs.getString("place_id"));
+                    wm[0] = later(wm[0], rs.getTimestamp("deleted_at"));
+                },
+                Timestamp.from(since));
+
+        return Optional.of(new PlaceChangeSet(upserts, deleted, wm[0]));
+    }
+
+    private static Instant later(Instant a, Timestamp b) {
+        return (b == null || !b.toInstant().isAfter(a)) ? a : b.toInstant();
+    }
+
+    /** V2 변경 피드가 적용된 DB 인지 한 번만 확인 (DB 에 닿지 못했으면 다음에 다시) */
+    private boolean supportsChangeFeed() {
+        Boolean c = changeFeed;
+        if (c != null) return c;
+        try {
+            c = jdbc.queryForObject(
+                    "SELECT to_regclass('place_deletions') IS NOT NULL AND EXISTS (" +
+                            "  SELECT 1 FROM information_schema.columns " +
+                            "  WHERE table_name = 'places' AND column_name = 'updated_at')",
+                    Boolean.class);
+            changeFeed = Boolean.TRUE.equals(c);
+            if (!changeFeed) log.info("[places] change feed 없음 (db/schema/V2 미적용) → 주기적 전체 재적재만 사용");
+            return changeFeed;
+        } catch (Exception e) {
+            log.warn("[places] change feed probe failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public GeoStrategy geoStrategy() {
+        GeoStrategy s = strategy;
+        if (s != null) return s;
+        long retryAt = probeRetryAt;
+        if (retryAt != 0 && System.nanoTime() - retryAt < 0) return GeoStrategy.BOUNDING_BOX_SQL;
+        return probeGeoStrategy();
+    }
+
+    /**
+     * cube/earthdistance 사용 가능 여부를 카탈로그 조회로 확인하고 반경 조회 경로를 고정한다.
+     * DB 에 닿지 못했으면 결과를 확정하지 않고 PROBE_RETRY_NANOS 동안 BOUNDING_BOX_SQL 로 동작한 뒤 다시 확인한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void probeOnStartup() {
+        probeGeoStrategy();
+    }
+
+    private synchronized GeoStrategy probeGeoStrategy() {
+        if (strategy != null) return strategy;
+        long retryAt = probeRetryAt;
+        if (retryAt != 0 && System.nanoTime() - retryAt < 0) return GeoStrategy.BOUNDING_BOX_SQL;   // 기다리던 다른 스레드가 방금 실패
+        try {
+            Boolean earth = jdbc.queryForObject(
+                    "SELECT to_regproc('ll_to_earth') IS NOT NULL AND to_regproc('earth_box') IS NOT NULL",
+                    Boolean.class);
+            if (Boolean.TRUE.equals(earth)) {
+                Boolean indexed = jdbc.queryForObject(
+                        "SELECT to_regclass('places_ll_to_earth_gist') IS NOT NULL", Boolean.class);
+                if (!Boolean.TRUE.equals(indexed)) {
+                    log.warn("[geo] earthdistance 는 있지만 places_ll_to_earth_gist 인덱스가 없습니다 (db/schema/V1 참고)");
+                }
+                strategy = GeoStrategy.EARTH_BOX_SQL;
+            } else {
+                strategy = GeoStrategy.BOUNDING_BOX_SQL;
+            }
+            log.info("[geo] SQL strategy = {}", strategy);
+            return strategy;
+        } catch (Exception e) {
+            probeRetryAt = System.nanoTime() + PROBE_RETRY_NANOS;
+            log.warn("[geo] capability probe failed: {} → {} 초 동안 BOUNDING_BOX_SQL 로 동작", e.getMessage(),
+                    PROBE_RETRY_NANOS / 1_000_000_000L);
+            return GeoStrategy.BOUNDING_BOX_SQL;
+        }
+    }
+
+    /** 확장 없이 쓰는 경로: 사각형(BETWEEN)으로만 SQL 필터 후 하버사인으로 원 밖을 제거 */
+    private List<Place> fetchInBox(double lat, double lng, double radiusKm, List<String> categories) {
+        double[] box = HaversineUtil.boundingBox(lat, lng, radiusKm);
+        StringBuilder sql = new StringBuilder(SELECT_PLACES + "WHERE lat BETWEEN ? AND ? AND lng BETWEEN ? AND ? ");
+        List<Object> args = new ArrayList<>(List.of(box[0], box[1], box[2], box[3]));
+        appendCategoryFilter(sql, args, categories);
+
+        List<Place> rows = jdbc.query(sql.toString(), placeRows(), args.toArray());
+        rows.removeIf(p -> HaversineUtil.distanceKm(lat, lng, p.getLat(), p.getLng()) > radiusKm);
+        return rows;
+    }
+
+    private static void appendCategoryFilter(StringBuilder sql, List<Object> args, List<String> categories) {
+        if (categories == null || categories.isEmpty()) return;
+        // 동의어까지 펼친 표기로 lower(trim(category)) IN (?, ?, ...) — 메모리 인덱스의 카테고리 코드 필터와 같은 결과
+        List<String> forms = CategoryDictionary.spellings(categories);
+        if (forms.isEmpty()) {
+            sql.append("AND FALSE ");
+            return;
+        }
+        String in = forms.stream().map(s -> "?").collect(Collectors.joining(","));
+        sql.append("AND lower(trim(category)) IN (").append(in).append(") ");
+        args.addAll(forms);
     }
 }
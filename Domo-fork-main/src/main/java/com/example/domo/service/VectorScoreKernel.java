@@ -0,0 +1,77 @@
+package com.example.domo.service;
+
+import com.example.domo.model.ScoreColumns;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import static com.example.domo.service.ScoreServiceImpl.*;
+
+/**
+ * ScoreServiceImpl.scoreScalar 의 SIMD 버전 (jdk.incubator.vector).
+ *
+ * 스칼라 경로와 같은 순서의 IEEE 연산(뺄셈 → 나눗셈 → 곱셈)만 쓰고, Math.round 는
+ * "정수부 + (소수부 ≥ 0.5 ? 1 : 0)" 로 계산한다. 입력이 0 이상이면 소수부 계산이 정확하므로 결과가 비트 단위로 같다.
+ * 레인 수로 나눠떨어지지 않는 나머지 행은 스칼라 경로로 처리한다.
+ */
+final class VectorScoreKernel implements ScoreKernel {
+
+    private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+    // double 레인 수와 같은 int 벡터 (비트 폭 절반)
+    private static final VectorSpecies<Integer> I =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(D.vectorBitSize() / 2));
+
+    VectorScoreKernel() {
+        if (I.length() != D.length()) throw new IllegalStateException("lane mismatch " + I + " / " + D);
+    }
+
+    @Override
+    public void score(ScoreColumns s, int from, int to) {
+        int i = from;
+        int upper = from + D.loopBound(to - from);
+        for (; i < upper; i += D.length()) {
+            // distanceScore: km <= 0 → 최대, km >= 15 → 0, 그 사이 round((15 - km) / 15 * 40)
+            DoubleVector km = DoubleVector.fromArray(D, s.distanceKm, i);
+            DoubleVector ratio = DoubleVector.broadcast(D, MAX_DISTANCE_KM_FOR_SCORE).sub(km).div(MAX_DISTANCE_KM_FOR_SCORE);
+            IntVector distance = clamp(roundNonNegative(ratio.mul(MAX_DISTANCE_SCORE)), MAX_DISTANCE_SCORE)
+                    .blend(MAX_DISTANCE_SCORE, km.compare(VectorOperators.LE, 0.0).cast(I))
+                    .blend(0, km.compare(VectorOperators.GE, MAX_DISTANCE_KM_FOR_SCORE).cast(I));
+
+            IntVector benefit = scaleLinear(IntVector.fromArray(I, s.discount, i), MAX_BENEFIT_SCORE);
+            IntVector popular = scaleLinear(IntVector.fromArray(I, s.popularity, i), MAX_POPULAR_SCORE);
+
+            distance.intoArray(s.distanceScore, i);
+            benefit.intoArray(s.benefitScore, i);
+            popular.intoArray(s.popularScore, i);
+            distance.add(benefit).add(popular).intoArray(s.totalScore, i);
+        }
+        if (i < to) scoreScalar(s, i, to);
+    }
+
+    @Override
+    public String name() {
+        return "vector(" + D.length() + " lanes)";
+    }
+
+    /** scaleLinear(raw, 100, targetMax) 후 [0, targetMax] 로 자른 값 */
+    private static IntVector scaleLinear(IntVector raw, int targetMax) {
+        IntVector v = raw.max(0).min(100);
+        DoubleVector d = (DoubleVector) v.convertShape(VectorOperators.I2D, D, 0);
+        return clamp(roundNonNegative(d.div(100.0).mul(targetMax)), targetMax);
+    }
+
+    /** x ≥ 0 인 레인에서 Math.round(x) 와 같다. 음수 레인 값은 의미 없다(호출자가 blend 로 덮어쓴다) */
+    private static IntVector roundNonNegative(DoubleVector x) {
+        IntVector whole = (IntVector) x.convertShape(VectorOperators.D2I, I, 0);
+        DoubleVector frac = x.sub((DoubleVector) whole.convertShape(VectorOperators.I2D, D, 0));
+        VectorMask<Integer> up = frac.compare(VectorOperators.GE, 0.5).cast(I);
+        return whole.add(1, up);
+    }
+
+    private static IntVector clamp(IntVector v, int max) {
+        return v.max(0).min(max);
+    }
+}
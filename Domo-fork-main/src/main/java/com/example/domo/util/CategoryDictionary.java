@@ -0,0 +1,107 @@
+package com.example.domo.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 카테고리 문자열 → 정규 코드(작은 정수) 사전.
+ * 동의어(음식/식당 → 음식점, 액티비티 → 놀거리 …)는 여기서 한 번만 풀고, 이후 비교/필터/점수는 코드로 한다.
+ *
+ * 코드 0 = 카테고리 없음, 1~3 = 고정 카테고리. 그 밖의 카테고리는 적재 중 처음 볼 때 다음 번호를 받는다
+ * (대소문자/앞뒤 공백 무시). 한 번 붙은 코드는 프로세스가 끝날 때까지 바뀌지 않는다.
+ * 사용자 입력은 intern 하지 않고 find 로만 찾는다 (사전이 요청마다 늘지 않도록).
+ */
+public final class CategoryDictionary {
+
+    public static final short NONE = 0;
+    public static final short FOOD = 1;
+    public static final short CAFE = 2;
+    public static final short ACTIVITY = 3;
+
+    /** find 결과: 사전에 없는 카테고리 */
+    public static final short UNKNOWN = -1;
+
+    private static final Map<String, Short> codes = new ConcurrentHashMap<>();     // 정규화한 표기 → 코드
+    private static final List<Set<String>> spellings = new ArrayList<>();          // 코드 → 정규화한 표기들 (synchronized)
+    private static volatile String[] names = new String[0];                        // 코드 → 대표 이름
+
+    static {
+        define(null);
+        define("음식점", "음식", "식당", "restaurant");
+        define("카페", "cafe");
+        define("놀거리", "액티비티");
+    }
+
+    private CategoryDictionary() {}
+
+    /** 적재 시점용: 처음 보는 카테고리면 새 코드를 붙인다. null/빈 문자열은 NONE */
+    public static short intern(String category) {
+        String key = normalize(category);
+        if (key == null) return NONE;
+        Short code = codes.get(key);
+        return (code != null) ? code : define(category.trim());
+    }
+
+    /** 조회용: 사전에 없으면 UNKNOWN (null/빈 문자열은 NONE) */
+    public static short find(String category) {
+        String key = normalize(category);
+        if (key == null) return NONE;
+        return codes.getOrDefault(key, UNKNOWN);
+    }
+
+    /** 코드의 대표 이름 (NONE 이면 null) */
+    public static String name(short code) {
+        return names[code];
+    }
+
+    /** 지금까지 붙은 코드 개수 (NONE 포함) */
+    public static int size() {
+        return names.length;
+    }
+
+    /**
+     * DB 필터용 정규화 표기 목록: 아는 카테고리는 동의어를 모두 펼치고 모르는 값은 정규화한 원문 그대로 둔다.
+     * lower(trim(category)) IN (...) 결과가 메모리 필터와 같아진다. null/빈 값은 건너뛴다.
+     */
+    public static List<String> spellings(Collection<String> categories) {
+        Set<String> out = new LinkedHashSet<>();
+        for (String s : categories) {
+            short code = find(s);
+            if (code == NONE) continue;
+            if (code > NONE) {
+                synchronized (spellings) {
+                    out.addAll(spellings.get(code));
+                }
+            } else {
+                out.add(normalize(s));
+            }
+        }
+        return new ArrayList<>(out);
+    }
+
+    private static short define(String name, String... synonyms) {
+        synchronized (spellings) {
+            String key = normalize(name);
+            Short existing = (key == null) ? null : codes.get(key);
+            if (existing != null) return existing;       // 다른 스레드가 먼저 넣었다
+
+            int code = names.length;
+            if (code > Short.MAX_VALUE) throw new IllegalStateException("카테고리가 너무 많습니다: " + code);
+            Set<String> forms = new LinkedHashSet<>();
+            if (key != null) forms.add(key);
+            for (String s : synonyms) forms.add(normalize(s));
+            spellings.add(forms);
+            String[] grown = Arrays.copyOf(names, code + 1);
+            grown[code] = name;
+            names = grown;
+            for (String f : forms) codes.put(f, (short) code);
+            return (short) code;
+        }
+    }
+
+    private static String normalize(String category) {
+        if (category == null) return null;
+        String s = category.trim();
+        return s.isEmpty() ? null : s.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.domo.util;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 자동완성용 한글 정규화. 완성형 음절을 자판 입력 순서의 호환 자모로 풀어서
+ * 입력 중인 글자("가" → "강", "달" → "닭")도 완성된 이름의 접두사가 되게 한다.
+ *
+ * 겹모음/겹받침(ㅘ, ㄺ …)은 두 타로 나누고, 된소리(ㄲ …)는 한 타라 그대로 둔다.
+ * 그 밖에는 소문자 + NFC, 공백 제거.
+ */
+public final class HangulJamo {
+
+    private static final char SYLLABLE_FIRST = 0xAC00, SYLLABLE_LAST = 0xD7A3;
+
+    private static final String CHO = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+    private static final String JUNG = "ㅏㅐㅑㅒㅓㅔㅕㅖㅗㅘㅙㅚㅛㅜㅝㅞㅟㅠㅡㅢㅣ";
+    private static final String JONG = "\0ㄱㄲㄳㄴㄵㄶㄷㄹㄺㄻㄼㄽㄾㄿㅀㅁㅂㅄㅅㅆㅇㅈㅊㅋㅌㅍㅎ";
+
+    /** 겹모음/겹받침 → 입력 순서 두 자모 */
+    private static final Map<Character, String> SPLIT = new HashMap<>();
+
+    static {
+        String[] pairs = {
+                "ㅘㅗㅏ", "ㅙㅗㅐ", "ㅚㅗㅣ", "ㅝㅜㅓ", "ㅞㅜㅔ", "ㅟㅜㅣ", "ㅢㅡㅣ",
+                "ㄳㄱㅅ", "ㄵㄴㅈ", "ㄶㄴㅎ", "ㄺㄹㄱ", "ㄻㄹㅁ", "ㄼㄹㅂ", "ㄽㄹㅅ", "ㄾㄹㅌ", "ㄿㄹㅍ", "ㅀㄹㅎ", "ㅄㅂㅅ"
+        };
+        for (String p : pairs) SPLIT.put(p.charAt(0), p.substring(1));
+    }
+
+    private HangulJamo() {}
+
+    public static String decompose(String s) {
+        if (s == null || s.isEmpty()) return "";
+        String nfc = Normalizer.normalize(s, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(nfc.length() * 3);
+        for (int i = 0; i < nfc.length(); i++) {
+            char c = nfc.charAt(i);
+            if (Character.isWhitespace(c)) continue;
+            if (c >= SYLLABLE_FIRST && c <= SYLLABLE_LAST) {
+                int idx = c - SYLLABLE_FIRST;
+                append(sb, CHO.charAt(idx / 588));
+                append(sb, JUNG.charAt(idx % 588 / 28));
+                int jong = idx % 28;
+                if (jong != 0) append(sb, JONG.charAt(jong));
+            } else {
+                append(sb, c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, char jamo) {
+        String split = SPLIT.get(jamo);
+        if (split != null) sb.append(split);
+        else sb.append(jamo);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.domo.util;
 
 public final class HaversineUtil {
     private static final double R = 6371.0; // 지구 반지름(km)
+    private static final double BOX_SLACK = 1.001;
 
     private HaversineUtil() {}
 
@@ -14,4 +15,24 @@ public final class HaversineUtil {
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
         return R * c;
     }
+
+    /**
+     * 반경 원을 완전히 덮는 위/경도 사각형 {minLat, maxLat, minLng, maxLng}.
+     * 경도 폭은 구면 원의 최대 경도차 asin(sin(r/R) / cos φ). 원이 극을 덮거나 ±180° 를 넘으면
+     * 사각형 하나로는 감쌀 수 없으므로 경도를 [-180, 180] 전체로 넓힌다.
+     */
+    public static double[] boundingBox(double lat, double lng, double radiusKm) {
+        double d = radiusKm / R;
+        // 부동소수 오차로 경계의 점을 놓치지 않게 살짝 넓힌다
+        double dLat = Math.toDegrees(d) * BOX_SLACK;
+        double s = Math.sin(Math.min(d, Math.PI / 2)) / Math.cos(Math.toRadians(lat));
+        if (d >= Math.PI / 2 || lat + dLat >= 90 || lat - dLat <= -90 || !(s < 1)) {
+            return new double[]{ lat - dLat, lat + dLat, -180.0, 180.0 };
+        }
+        double dLng = Math.toDegrees(Math.asin(s)) * BOX_SLACK;
+        if (lng - dLng < -180 || lng + dLng > 180) {
+            return new double[]{ lat - dLat, lat + dLat, -180.0, 180.0 };
+        }
+        return new double[]{ lat - dLat, lat + dLat, lng - dLng, lng + dLng };
+    }
 }
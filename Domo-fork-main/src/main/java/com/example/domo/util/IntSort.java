@@ -0,0 +1,87 @@
+package com.example.domo.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/** 박싱 없이 int[] 를 사용자 비교자로 제자리 정렬 (행 번호 배열 정렬용, 비안정) */
+public final class IntSort {
+
+    @FunctionalInterface
+    public interface IntComparator {
+        int compare(int a, int b);
+    }
+
+    private static final int INSERTION = 16;
+
+    private IntSort() {}
+
+    public static void sort(int[] a, int from, int to, IntComparator c) {
+        while (to - from > INSERTION) {
+            int mid = (from + to) >>> 1;
+            int pivot = median(a[from], a[mid], a[to - 1], c);
+            int i = from, j = to - 1;
+            while (i <= j) {
+                while (c.compare(a[i], pivot) < 0) i++;
+                while (c.compare(a[j], pivot) > 0) j--;
+                if (i <= j) { int t = a[i]; a[i] = a[j]; a[j] = t; i++; j--; }
+            }
+            // 작은 쪽만 재귀 → 스택 깊이 O(log n)
+            if (j - from < to - i) {
+                sort(a, from, j + 1, c);
+                from = i;
+            } else {
+                sort(a, i, to, c);
+                to = j + 1;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            int v = a[i], j = i - 1;
+            while (j >= from && c.compare(a[j], v) > 0) { a[j + 1] = a[j]; j--; }
+            a[j + 1] = v;
+        }
+    }
+
+    /**
+     * ForkJoinPool 에서 병합 정렬. leaf 이하 구간은 sort 로 정렬한 뒤 합친다.
+     * 비교자가 전순서(동률 없음)여야 sort 와 결과가 같다.
+     */
+    public static void parallelSort(int[] a, int from, int to, IntComparator c, ForkJoinPool pool, int leaf) {
+        if (to - from <= leaf) {
+            sort(a, from, to, c);
+            return;
+        }
+        pool.invoke(new MergeTask(a, new int[a.length], from, to, c, Math.max(INSERTION, leaf)));
+    }
+
+    private static final class MergeTask extends RecursiveAction {
+        private final int[] a, buf;
+        private final int from, to, leaf;
+        private final IntComparator c;
+
+        MergeTask(int[] a, int[] buf, int from, int to, IntComparator c, int leaf) {
+            this.a = a; this.buf = buf; this.from = from; this.to = to; this.c = c; this.leaf = leaf;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leaf) {
+                sort(a, from, to, c);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MergeTask(a, buf, from, mid, c, leaf), new MergeTask(a, buf, mid, to, c, leaf));
+            if (c.compare(a[mid - 1], a[mid]) <= 0) return;   // 이미 이어져 있음
+            int i = from, j = mid, k = from;
+            while (i < mid && j < to) buf[k++] = (c.compare(a[j], a[i]) < 0) ? a[j++] : a[i++];
+            while (i < mid) buf[k++] = a[i++];
+            while (j < to) buf[k++] = a[j++];
+            System.arraycopy(buf, from, a, from, to - from);
+        }
+    }
+
+    private static int median(int x, int y, int z, IntComparator c) {
+        if (c.compare(x, y) > 0) { int t = x; x = y; y = t; }
+        if (c.compare(y, z) > 0) { y = z; if (c.compare(x, y) > 0) y = x; }
+        return y;
+    }
+}
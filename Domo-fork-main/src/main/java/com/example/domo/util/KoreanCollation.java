@@ -0,0 +1,28 @@
+package com.example.domo.util;
+
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 이름 정렬용 한국어 정렬 키.
+ * Collator.compare 는 비교할 때마다 두 문자열을 처음부터 다시 분해하므로, 행마다 키를 한 번만 만들어두고
+ * 바이트 비교(부호 없는 사전순)만 한다. 결과 순서는 Collator.getInstance(Locale.KOREA).compare 와 같다.
+ */
+public final class KoreanCollation {
+
+    // RuleBasedCollator 는 키 생성이 synchronized 라 스레드마다 하나씩
+    private static final ThreadLocal<Collator> COLLATOR =
+            ThreadLocal.withInitial(() -> Collator.getInstance(Locale.KOREA));
+
+    private KoreanCollation() {}
+
+    /** null 은 "" 와 같은 키 */
+    public static byte[] key(String s) {
+        return COLLATOR.get().getCollationKey(s == null ? "" : s).toByteArray();
+    }
+
+    public static int compare(byte[] a, byte[] b) {
+        return Arrays.compareUnsigned(a, b);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.domo.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 전체 정렬 없이 앞쪽 k 개만 고른다 (크기 k 힙, O(n log k)).
+ * 동률은 입력 순서(위치가 작은 쪽) 먼저라서 안정 정렬 후 앞 k 개를 자른 것과 같다.
+ */
+public final class TopK {
+
+    private TopK() {}
+
+    /** 위치 0..n-1 중 c 순서로 앞 k 개 위치 (정렬된 순서) */
+    public static int[] of(int n, IntSort.IntComparator c, int k) {
+        IntSort.IntComparator total = (a, b) -> {
+            int r = c.compare(a, b);
+            return (r != 0) ? r : Integer.compare(a, b);
+        };
+        int size = Math.max(0, Math.min(k, n));
+        int[] heap = new int[size];   // 루트 = 지금까지 고른 것 중 가장 뒤
+        int h = 0;
+        for (int i = 0; i < n && size > 0; i++) {
+            if (h < size) {
+                heap[h] = i;
+                siftUp(heap, h++, total);
+            } else if (total.compare(i, heap[0]) < 0) {
+                heap[0] = i;
+                siftDown(heap, 0, h, total);
+            }
+        }
+        IntSort.sort(heap, 0, h, total);
+        return heap;
+    }
+
+    /** list 에서 order 순서로 앞 k 개 (list 는 건드리지 않는다) */
+    public static <T> List<T> of(List<T> list, Comparator<? super T> order, int k) {
+        int[] pos = of(list.size(), (a, b) -> order.compare(list.get(a), list.get(b)), k);
+        List<T> out = new ArrayList<>(pos.length);
+        for (int p : pos) out.add(list.get(p));
+        return out;
+    }
+
+    // 힙 순서: 부모가 자식보다 뒤(비교 결과가 크다)
+
+    private static void siftUp(int[] heap, int i, IntSort.IntComparator c) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (c.compare(heap[parent], v) >= 0) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = v;
+    }
+
+    private static void siftDown(int[] heap, int i, int size, IntSort.IntComparator c) {
+        int v = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && c.compare(heap[child + 1], heap[child]) > 0) child++;
+            if (c.compare(v, heap[child]) >= 0) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = v;
+    }
+}
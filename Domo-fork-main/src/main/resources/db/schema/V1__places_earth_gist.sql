@@ -0,0 +1,6 @@
+-- 반경 조회(earth_box @> ll_to_earth)가 인덱스를 타도록 functional GiST 인덱스 생성
+CREATE EXTENSION IF NOT EXISTS cube;
+CREATE EXTENSION IF NOT EXISTS earthdistance;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS places_ll_to_earth_gist
+    ON places USING gist (ll_to_earth(lat, lng));
@@ -0,0 +1,33 @@
+-- 메모리 스냅샷 증분 갱신용 변경 피드: updated_at 워터마크 + 삭제 기록
+-- (ScriptUtils 가 ; 로 문장을 나누므로 함수 본문은 $$ 대신 작은따옴표로 감싼다)
+ALTER TABLE places ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS places_updated_at_idx ON places (updated_at);
+
+CREATE OR REPLACE FUNCTION places_touch_updated_at() RETURNS trigger
+    LANGUAGE plpgsql AS 'BEGIN NEW.updated_at := now(); RETURN NEW; END';
+
+DROP TRIGGER IF EXISTS places_touch_updated_at ON places;
+CREATE TRIGGER places_touch_updated_at
+    BEFORE UPDATE ON places
+    FOR EACH ROW EXECUTE FUNCTION places_touch_updated_at();
+
+CREATE TABLE IF NOT EXISTS place_deletions (
+    place_id   UUID PRIMARY KEY,
+    deleted_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS place_deletions_deleted_at_idx ON place_deletions (deleted_at);
+
+CREATE OR REPLACE FUNCTION places_record_deletion() RETURNS trigger
+    LANGUAGE plpgsql AS '
+BEGIN
+    INSERT INTO place_deletions(place_id) VALUES (OLD.place_id)
+    ON CONFLICT (place_id) DO UPDATE SET deleted_at = now();
+    RETURN OLD;
+END';
+
+DROP TRIGGER IF EXISTS places_record_deletion ON places;
+CREATE TRIGGER places_record_deletion
+    AFTER DELETE ON places
+    FOR EACH ROW EXECUTE FUNCTION places_record_deletion();
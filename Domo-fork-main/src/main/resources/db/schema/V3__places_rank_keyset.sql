@@ -0,0 +1,10 @@
+-- /api/benefits 키셋 페이지용 식 인덱스 (SupabaseServiceImpl.fetchPlacesAfter 의 ORDER BY 와 같은 식)
+-- 전체 / 시도 / 시도+시군구 조건마다 인덱스 탐색 한 번으로 다음 페이지를 읽는다
+CREATE INDEX CONCURRENTLY IF NOT EXISTS places_rank_keyset_idx
+    ON places ((-COALESCE(totalscore, 0)), (-COALESCE(discountpercent, 0)), place_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS places_sido_rank_keyset_idx
+    ON places (sido, (-COALESCE(totalscore, 0)), (-COALESCE(discountpercent, 0)), place_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS places_sido_sigungu_rank_keyset_idx
+    ON places (sido, sigungu, (-COALESCE(totalscore, 0)), (-COALESCE(discountpercent, 0)), place_id);
@@ -0,0 +1,14 @@
+-- V3 키셋 인덱스를 반올림한 점수 식으로 교체 (SupabaseServiceImpl.RANK_KEY 와 글자까지 같은 식)
+-- 커서에는 PlaceRowMapper 가 반올림한 정수 점수가 실리므로 원래 값으로 비교하면 소수점 점수 행이 빠지거나 중복된다
+CREATE INDEX CONCURRENTLY IF NOT EXISTS places_rank_key_idx
+    ON places ((-floor(COALESCE(totalscore,0) + 0.5)), (-trunc(COALESCE(discountpercent,0))), place_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS places_sido_rank_key_idx
+    ON places (sido, (-floor(COALESCE(totalscore,0) + 0.5)), (-trunc(COALESCE(discountpercent,0))), place_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS places_sido_sigungu_rank_key_idx
+    ON places (sido, sigungu, (-floor(COALESCE(totalscore,0) + 0.5)), (-trunc(COALESCE(discountpercent,0))), place_id);
+
+DROP INDEX CONCURRENTLY IF EXISTS places_rank_keyset_idx;
+DROP INDEX CONCURRENTLY IF EXISTS places_sido_rank_keyset_idx;
+DROP INDEX CONCURRENTLY IF EXISTS places_sido_sigungu_rank_keyset_idx;
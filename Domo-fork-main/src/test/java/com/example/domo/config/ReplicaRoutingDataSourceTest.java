@@ -0,0 +1,139 @@
+package com.example.domo.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReplicaDataSourceConfig 와 같은 배선(LazyConnectionDataSourceProxy → ReplicaRoutingDataSource)에
+ * DB 대신 가짜 DataSource 두 개를 물려서, 연결이 실제로 어느 쪽에서 나오는지 본다.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private Connection primaryCon;
+    private Connection replicaCon;
+    private DataSource primary;
+    private DataSource replica;
+
+    /** 다음 checkReplicaLag 가 볼 지연 값 (null 이면 측정 실패) */
+    private final AtomicReference<Double> lag = new AtomicReference<>(0.0);
+
+    private ReplicaRoutingDataSource routing;
+    private DataSource dataSource;
+    private DataSourceTransactionManager txManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primaryCon = standInConnection();
+        replicaCon = standInConnection();
+        primary = standInDataSource(primaryCon);
+        replica = standInDataSource(replicaCon);
+
+        Supplier<Double> probe = () -> {
+            Double v = lag.get();
+            if (v == null) throw new IllegalStateException("replica unreachable");
+            return v;
+        };
+        routing = new ReplicaRoutingDataSource(primary, replica, 5000, probe);
+        dataSource = new LazyConnectionDataSourceProxy(routing);
+        txManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() throws SQLException {
+        assertSame(replicaCon, connectionUsedIn(true));
+        verify(primaryCon, never()).createStatement();
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() throws SQLException {
+        assertSame(primaryCon, connectionUsedIn(false));
+        verify(replicaCon, never()).createStatement();
+    }
+
+    @Test
+    void noTransactionUsesPrimary() throws SQLException {
+        try (Connection con = dataSource.getConnection()) {
+            con.createStatement();
+        }
+        verify(primaryCon).createStatement();
+        verify(replicaCon, never()).createStatement();
+    }
+
+    @Test
+    void laggingReplicaSendsReadsToPrimaryUntilItCatchesUp() throws SQLException {
+        lag.set(12_000.0);
+        routing.checkReplicaLag();
+        assertFalse(routing.isReplicaUsable());
+        assertSame(primaryCon, connectionUsedIn(true));
+        assertEquals(1L, routing.stats().get("readFallbacks"));
+
+        lag.set(0.0);
+        routing.checkReplicaLag();
+        assertTrue(routing.isReplicaUsable());
+        assertSame(replicaCon, connectionUsedIn(true));
+    }
+
+    @Test
+    void failedLagCheckSendsReadsToPrimary() throws SQLException {
+        lag.set(null);
+        routing.checkReplicaLag();
+        assertFalse(routing.isReplicaUsable());
+        assertSame(primaryCon, connectionUsedIn(true));
+    }
+
+    @Test
+    void lagAtTheLimitStillUsesReplica() throws SQLException {
+        lag.set(5000.0);
+        routing.checkReplicaLag();
+        assertTrue(routing.isReplicaUsable());
+        assertSame(replicaCon, connectionUsedIn(true));
+    }
+
+    /** 트랜잭션 안에서 첫 문장을 만들 때 실제로 꺼내진 대상 연결 */
+    private Connection connectionUsedIn(boolean readOnly) throws SQLException {
+        clearInvocations(primaryCon, replicaCon);
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.setReadOnly(readOnly);
+        tx.executeWithoutResult(status -> {
+            try {
+                DataSourceUtils.getConnection(dataSource).createStatement();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        boolean usedPrimary = mockingDetails(primaryCon).getInvocations().stream()
+                .anyMatch(i -> i.getMethod().getName().equals("createStatement"));
+        boolean usedReplica = mockingDetails(replicaCon).getInvocations().stream()
+                .anyMatch(i -> i.getMethod().getName().equals("createStatement"));
+        assertNotEquals(usedPrimary, usedReplica, "exactly one pool should serve the statement");
+        return usedPrimary ? primaryCon : replicaCon;
+    }
+
+    private static Connection standInConnection() throws SQLException {
+        Connection con = mock(Connection.class);
+        when(con.getAutoCommit()).thenReturn(true);
+        when(con.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+        when(con.createStatement()).thenReturn(mock(Statement.class));
+        return con;
+    }
+
+    private static DataSource standInDataSource(Connection con) throws SQLException {
+        DataSource ds = mock(DataSource.class);
+        when(ds.getConnection()).thenReturn(con);
+        return ds;
+    }
+}
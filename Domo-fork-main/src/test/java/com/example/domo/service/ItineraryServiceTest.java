@@ -0,0 +1,83 @@
+package com.example.domo.service;
+
+import com.example.domo.controller.dto.PlanRequest;
+import com.example.domo.model.Place;
+import com.example.domo.util.CategoryDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * recommendAgain 의 targetCategory 필터: 동의어는 사전 코드로, 사전에 없는 값은 문자열로 비교한다.
+ * DB 대신 SupabaseService 목이 반경 후보를 돌려준다.
+ */
+class ItineraryServiceTest {
+
+    private static final double LAT = 37.5665, LNG = 126.9780;
+
+    private SupabaseService db;
+    private ItineraryService service;
+
+    @BeforeEach
+    void setUp() {
+        db = mock(SupabaseService.class);
+        service = new ItineraryService(db, mock(GptService.class), mock(ScoreService.class));
+    }
+
+    @Test
+    void synonymTargetMatchesCanonicalCategory() {
+        givenPool(place("p1", "음식점"), place("p2", "카페"));
+        assertEquals("p1", service.recommendAgain(request("식당")));
+    }
+
+    @Test
+    void targetIgnoresCaseAndSurroundingSpaces() {
+        givenPool(place("p1", "음식점"), place("p2", "카페"));
+        assertEquals("p2", service.recommendAgain(request("  CAFE ")));
+    }
+
+    @Test
+    void unknownTargetFallsBackToStringComparison() {
+        // setCategory 를 거치지 않아 사전에 한 번도 들어가지 않은 카테고리 (find → UNKNOWN)
+        Place unmapped = spy(place("p3", null));
+        doReturn("보드게임방").when(unmapped).getCategory();
+        givenPool(place("p1", "음식점"), unmapped);
+
+        assertEquals(CategoryDictionary.UNKNOWN, CategoryDictionary.find("보드게임방"));
+        assertEquals("p3", service.recommendAgain(request(" 보드게임방 ")));
+    }
+
+    @Test
+    void unknownTargetWithoutMatchesHasNoCandidate() {
+        givenPool(place("p1", "음식점"));
+        assertThrows(IllegalStateException.class, () -> service.recommendAgain(request("없는카테고리")));
+    }
+
+    private void givenPool(Place... pool) {
+        when(db.fetchKNearest(eq(LAT), eq(LNG), eq(1), anyList())).thenReturn(List.of(pool[0]));
+        when(db.fetchPlacesNear(eq(LAT), eq(LNG), anyDouble(), anyList(), anyInt())).thenReturn(List.of(pool));
+    }
+
+    private static PlanRequest request(String targetCategory) {
+        PlanRequest req = new PlanRequest();
+        req.setUserLat(LAT);
+        req.setUserLng(LNG);
+        req.setTargetCategory(targetCategory);
+        return req;
+    }
+
+    private static Place place(String id, String category) {
+        Place p = new Place();
+        p.setPlaceId(id);
+        p.setName(id);
+        p.setCategory(category);
+        p.setLat(LAT + 0.001);
+        p.setLng(LNG);
+        return p;
+    }
+}
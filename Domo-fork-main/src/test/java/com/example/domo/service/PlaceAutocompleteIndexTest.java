@@ -0,0 +1,133 @@
+package com.example.domo.service;
+
+import com.example.domo.model.Place;
+import com.example.domo.model.PlaceColumns;
+import com.example.domo.util.HangulJamo;
+import com.example.domo.util.KoreanCollation;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PlaceAutocompleteIndex 가 노드마다 미리 고른 상위 topN 후보가, 모든 후보의 키를 접두사로 훑어
+ * (점수 DESC, 이름, 후보 번호) 로 정렬한 결과와 같은지 본다.
+ */
+class PlaceAutocompleteIndexTest {
+
+    private static final String[] WORDS = { "스타벅스", "스타필드", "강남점", "강남", "보드게임", "카페", "방탈출", "공방", "Board", "서울숲" };
+    private static final String[][] REGIONS = {
+            { "서울", "강남구" }, { "서울", "마포구" }, { "경기", "성남시" }, { "경기", null }, { null, "강남구" }, { " ", "중구" }, { null, null }
+    };
+
+    @Test
+    void completeMatchesPrefixScan() {
+        Random rnd = new Random(25);
+        for (int round = 0; round < 30; round++) {
+            PlaceColumns cols = PlaceColumns.of(randomPlaces(rnd, 20 + rnd.nextInt(200)));
+            int topN = 1 + rnd.nextInt(12);
+            PlaceAutocompleteIndex idx = PlaceAutocompleteIndex.build(round, cols, topN);
+            assertEquals(topN, idx.topN());
+
+            for (String q : queries(rnd)) {
+                int limit = 1 + rnd.nextInt(15);
+                assertEquals(expected(idx, q, Math.min(limit, topN)), List.of(box(idx.complete(q, limit))),
+                        "q=" + q + " topN=" + topN + " limit=" + limit);
+            }
+        }
+    }
+
+    @Test
+    void regionsCarryTheBestScoreInTheRegion() {
+        List<Place> places = List.of(
+                place("00000000-0000-0000-0000-000000000001", "스타벅스 강남점", "서울", "강남구", 3),
+                place("00000000-0000-0000-0000-000000000002", "강남 보드게임", "서울", "강남구", 7),
+                place("00000000-0000-0000-0000-000000000003", "스타필드", "경기", "하남시", 5));
+        PlaceAutocompleteIndex idx = PlaceAutocompleteIndex.build(1, PlaceColumns.of(places), 5);
+
+        List<String> texts = new ArrayList<>();
+        for (int e : idx.complete("강남", 10)) texts.add(idx.text(e) + (idx.isRegion(e) ? "*" : "") + ":" + idx.score(e));
+        assertEquals(List.of("강남 보드게임:7", "서울 강남구*:7", "스타벅스 강남점:3"), texts);
+
+        int[] st = idx.complete("스ㅌ", 10);     // 조합 중인 글자도 자모로 이어진다
+        assertEquals(2, st.length);
+        assertEquals("스타필드", idx.text(st[0]));
+        assertEquals(0, idx.complete("", 10).length);
+        assertEquals(0, idx.complete("강남", 0).length);
+        assertEquals(0, idx.complete("홍대", 10).length);
+    }
+
+    /** 후보 번호 순으로 키를 다시 만들어 q 로 시작하는 후보를 (점수 DESC, 이름, 번호) 상위 n 개 */
+    private static List<Integer> expected(PlaceAutocompleteIndex idx, String query, int n) {
+        String q = truncate(HangulJamo.decompose(query));
+        if (q.isEmpty()) return List.of();
+        List<Integer> hits = new ArrayList<>();
+        for (int e = 0; e < idx.entryCount(); e++) {
+            for (String key : keys(idx, e)) {
+                if (truncate(HangulJamo.decompose(key)).startsWith(q)) {
+                    hits.add(e);
+                    break;
+                }
+            }
+        }
+        hits.sort(Comparator.<Integer>comparingInt(e -> -idx.score(e))
+                .thenComparing((a, b) -> KoreanCollation.compare(KoreanCollation.key(idx.text(a)), KoreanCollation.key(idx.text(b))))
+                .thenComparingInt(e -> e));
+        return hits.subList(0, Math.min(n, hits.size()));
+    }
+
+    /** 장소는 이름의 단어마다 그 단어부터 끝까지, 지역은 시도 / 시군구 / 시도+시군구 */
+    private static List<String> keys(PlaceAutocompleteIndex idx, int e) {
+        List<String> out = new ArrayList<>();
+        if (!idx.isRegion(e)) {
+            String[] words = idx.text(e).trim().split("\\s+");
+            for (int w = 0; w < words.length; w++) out.add(String.join("", Arrays.asList(words).subList(w, words.length)));
+        } else if (idx.sigungu(e) == null) {
+            out.add(idx.sido(e));
+        } else {
+            out.add(idx.sigungu(e));
+            if (idx.sido(e) != null) out.add(idx.sido(e) + idx.sigungu(e));
+        }
+        return out;
+    }
+
+    private static String truncate(String key) {
+        return key.length() > PlaceAutocompleteIndex.MAX_KEY_LENGTH ? key.substring(0, PlaceAutocompleteIndex.MAX_KEY_LENGTH) : key;
+    }
+
+    private static List<String> queries(Random rnd) {
+        List<String> out = new ArrayList<>(List.of("스", "스타", "스ㅌ", "강남", "강남구", "서울강", "서울 마", "보드", "b", "BOARD", "카페", "경기", "중구", "없는말"));
+        for (int i = 0; i < 20; i++) {
+            String w = WORDS[rnd.nextInt(WORDS.length)] + WORDS[rnd.nextInt(WORDS.length)];
+            out.add(w.substring(0, 1 + rnd.nextInt(w.length())));
+        }
+        out.add("스타벅스".repeat(6));   // MAX_KEY_LENGTH 보다 긴 입력
+        return out;
+    }
+
+    private static List<Place> randomPlaces(Random rnd, int n) {
+        List<Place> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String[] region = REGIONS[rnd.nextInt(REGIONS.length)];
+            StringBuilder name = new StringBuilder(WORDS[rnd.nextInt(WORDS.length)]);
+            for (int w = rnd.nextInt(4); w > 0; w--) name.append(' ').append(WORDS[rnd.nextInt(WORDS.length)]);
+            out.add(place(new UUID(0, i).toString(), rnd.nextInt(8) == 0 ? " " : name.toString(), region[0], region[1], rnd.nextInt(6)));
+        }
+        return out;
+    }
+
+    private static Place place(String id, String name, String sido, String sigungu, int totalScore) {
+        Place p = new Place();
+        p.setPlaceId(id);
+        p.setName(name);
+        p.setSido(sido);
+        p.setSigungu(sigungu);
+        p.setTotalScore(totalScore);
+        return p;
+    }
+
+    private static Integer[] box(int[] a) {
+        return Arrays.stream(a).boxed().toArray(Integer[]::new);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.domo.service;
+
+import com.example.domo.model.Place;
+import com.example.domo.model.PlaceColumns;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PlaceSearchIndex.Builder 로 버전마다 바뀐 행만 반영한 색인이 같은 스냅샷을 처음부터 만든 색인과 같은 결과를 내는지,
+ * 그리고 그 결과가 정규화한 이름/주소의 단순 포함 검사와 맞는지 본다.
+ */
+class PlaceSearchIndexTest {
+
+    private static final String[] WORDS = { "강남", "역삼", "카페", "식당", "Coffee", "보드 게임", "방탈출", "공방", "서울", "마포" };
+
+    @Test
+    void incrementalApplyMatchesFreshBuild() {
+        Random rnd = new Random(24);
+        PlaceSearchIndex.Builder incremental = new PlaceSearchIndex.Builder();
+        Map<String, Place> live = new LinkedHashMap<>();
+        for (int i = 0; i < 200; i++) live.put(id(i), place(rnd, id(i)));
+        int nextId = 200;
+
+        for (long version = 1; version <= 60; version++) {
+            // 삭제, 이름/주소 변경, 추가를 섞고 행 순서도 섞는다
+            for (Iterator<String> it = live.keySet().iterator(); it.hasNext(); ) {
+                it.next();
+                if (rnd.nextInt(15) == 0) it.remove();
+            }
+            for (String id : new ArrayList<>(live.keySet())) {
+                if (rnd.nextInt(10) == 0) live.put(id, place(rnd, id));
+            }
+            for (int i = rnd.nextInt(20); i > 0; i--) live.put(id(nextId), place(rnd, id(nextId++)));
+            List<Place> rows = new ArrayList<>(live.values());
+            Collections.shuffle(rows, rnd);
+            PlaceColumns cols = PlaceColumns.of(rows);
+
+            PlaceSearchIndex patched = incremental.apply(version, cols);
+            PlaceSearchIndex fresh = new PlaceSearchIndex.Builder().apply(version, cols);
+            assertEquals(version, patched.storeVersion());
+            assertEquals(cols.size(), patched.size());
+            assertEquals(fresh.gramCount(), patched.gramCount());
+            for (String q : queries()) {
+                assertArrayEquals(fresh.search(q, 10), patched.search(q, 10), "v" + version + " q=" + q);
+                assertEquals(containing(cols, q), sorted(patched.search(q, Integer.MAX_VALUE)), "v" + version + " q=" + q);
+            }
+        }
+    }
+
+    @Test
+    void olderSnapshotIsUnchangedByLaterApply() {
+        Random rnd = new Random(25);
+        List<Place> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) rows.add(place(rnd, id(i)));
+        PlaceSearchIndex.Builder builder = new PlaceSearchIndex.Builder();
+        PlaceSearchIndex v1 = builder.apply(1, PlaceColumns.of(rows));
+        Map<String, int[]> before = new HashMap<>();
+        for (String q : queries()) before.put(q, v1.search(q, 20));
+
+        List<Place> changed = new ArrayList<>();
+        for (int i = 50; i < 150; i++) changed.add(place(rnd, id(i)));
+        builder.apply(2, PlaceColumns.of(changed));
+
+        for (String q : queries()) assertArrayEquals(before.get(q), v1.search(q, 20), q);
+    }
+
+    @Test
+    void shortQueriesAndUnknownGramsReturnNothing() {
+        Place p = new Place();
+        p.setPlaceId(id(1));
+        p.setName("강남 보드게임 카페");
+        PlaceSearchIndex idx = new PlaceSearchIndex.Builder().apply(1, PlaceColumns.of(List.of(p)));
+
+        assertEquals(0, idx.search("강", 10).length);
+        assertEquals(0, idx.search("  ", 10).length);
+        assertEquals(0, idx.search("남보드게임", 0).length);
+        assertEquals(0, idx.search("홍대", 10).length);
+        assertEquals(0, idx.search("카페강남", 10).length);    // 2-gram 은 다 있어도 이어진 문자열이 아니다
+        assertArrayEquals(new int[] { 0 }, idx.search("남 보드게임", 10));
+    }
+
+    /** 정규화한 이름이나 주소에 q 가 들어 있는 행 (오름차순) */
+    private static List<Integer> containing(PlaceColumns cols, String query) {
+        String q = PlaceSearchIndex.normalize(query);
+        List<Integer> out = new ArrayList<>();
+        if (q.length() < PlaceSearchIndex.MIN_QUERY_LENGTH) return out;
+        for (int r = 0; r < cols.size(); r++) {
+            if (PlaceSearchIndex.normalize(cols.name(r)).contains(q) || PlaceSearchIndex.normalize(cols.address(r)).contains(q)) {
+                out.add(r);
+            }
+        }
+        return out;
+    }
+
+    private static List<Integer> sorted(int[] rows) {
+        return Arrays.stream(rows).sorted().boxed().toList();
+    }
+
+    private static List<String> queries() {
+        List<String> out = new ArrayList<>(List.of("강남", "남카", "카페", "coffee", "COF", "보드게임", "게임 방", "서울 마포", "탈출", "공방"));
+        out.addAll(List.of(WORDS));
+        return out;
+    }
+
+    private static Place place(Random rnd, String id) {
+        Place p = new Place();
+        p.setPlaceId(id);
+        p.setName(WORDS[rnd.nextInt(WORDS.length)] + " " + WORDS[rnd.nextInt(WORDS.length)]);
+        p.setAddress(rnd.nextInt(5) == 0 ? null : WORDS[rnd.nextInt(WORDS.length)] + "구 " + rnd.nextInt(100));
+        p.setTotalScore(rnd.nextInt(5));
+        p.setDiscountPercent(rnd.nextInt(3) * 10);
+        return p;
+    }
+
+    private static String id(int i) {
+        return new UUID(0, i).toString();
+    }
+}
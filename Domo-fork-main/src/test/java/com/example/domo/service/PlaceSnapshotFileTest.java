@@ -0,0 +1,106 @@
+package com.example.domo.service;
+
+import com.example.domo.model.Place;
+import com.example.domo.model.PlaceColumns;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PlaceSnapshotFile 을 쓰고 다시 읽었을 때 열이 그대로인지, 깨진 파일은 IOException 으로 거르는지 본다.
+ */
+class PlaceSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsEveryColumn() throws IOException {
+        List<Place> places = new ArrayList<>(PlaceSpatialIndexTest.randomPlaces(new Random(8), 300));
+        Place odd = PlaceSpatialIndexTest.place("00000000-0000-0000-0000-000000000001", 3, 10, "카페", 37.5, 127.0);
+        odd.setName("");
+        odd.setAddress("서울 마포구 ☕ 1-2");
+        odd.setSido("서울");
+        odd.setSigungu("마포구");
+        odd.setBenefit("아메리카노 10% 할인");
+        places.add(odd);
+        PlaceColumns cols = PlaceColumns.of(places);
+        Instant wm = Instant.parse("2026-10-17T03:04:05.678Z");
+
+        Path file = dir.resolve("places.snap");
+        PlaceSnapshotFile.write(file, cols, wm, 1_700_000_000_000L);
+        PlaceSnapshotFile.Snapshot snap = PlaceSnapshotFile.read(file);
+
+        assertEquals(wm, snap.watermark());
+        assertEquals(1_700_000_000_000L, snap.baseLoadedAtMs());
+        PlaceColumns read = snap.columns();
+        assertEquals(cols.size(), read.size());
+        assertEquals(cols.categoryTable(), read.categoryTable());
+        for (int r = 0; r < cols.size(); r++) {
+            assertTrue(read.sameAs(r, places.get(r)), "row " + r);
+            assertEquals(cols.categoryId(r), read.categoryId(r), "row " + r);
+        }
+    }
+
+    @Test
+    void roundTripWithoutWatermarkOrRows() throws IOException {
+        Path file = dir.resolve("empty.snap");
+        PlaceSnapshotFile.write(file, PlaceColumns.EMPTY, null, 42L);
+        PlaceSnapshotFile.Snapshot snap = PlaceSnapshotFile.read(file);
+
+        assertNull(snap.watermark());
+        assertEquals(42L, snap.baseLoadedAtMs());
+        assertEquals(0, snap.columns().size());
+    }
+
+    @Test
+    void flippedBodyByteFailsTheChecksum() throws IOException {
+        Path file = write("crc.snap");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(file, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> PlaceSnapshotFile.read(file));
+        assertTrue(e.getMessage().contains("checksum mismatch"), e.getMessage());
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path file = write("short.snap");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> PlaceSnapshotFile.read(file));
+
+        Files.write(file, Arrays.copyOf(bytes, 20));
+        IOException e = assertThrows(IOException.class, () -> PlaceSnapshotFile.read(file));
+        assertTrue(e.getMessage().contains("truncated"), e.getMessage());
+    }
+
+    @Test
+    void otherFormatVersionIsRejected() throws IOException {
+        Path file = write("version.snap");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[5]++;     // MAGIC 다음 short(big-endian)의 하위 바이트
+        Files.write(file, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> PlaceSnapshotFile.read(file));
+        assertTrue(e.getMessage().contains("format"), e.getMessage());
+    }
+
+    private Path write(String name) throws IOException {
+        Path file = dir.resolve(name);
+        PlaceSnapshotFile.write(file, PlaceColumns.of(PlaceSpatialIndexTest.randomPlaces(new Random(9), 50)),
+                Instant.EPOCH, 0L);
+        return file;
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.domo.service;
+
+import com.example.domo.model.Place;
+import com.example.domo.model.PlaceCursor;
+import com.example.domo.util.CategoryDictionary;
+import com.example.domo.util.HaversineUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PlaceSpatialIndex 의 조회를 같은 목록에 대한 전체 훑기(거리 필터 + RANK_ORDER 정렬)와 비교한다.
+ * 좌표는 한국 주변 + 극/날짜변경선 근처를 섞고, 점수 동점을 일부러 많이 만든다.
+ */
+class PlaceSpatialIndexTest {
+
+    private static final String[] CATEGORIES = { "음식점", "식당", "카페", "CAFE", "놀거리", "공방", null };
+
+    @Test
+    void nearMatchesFullScan() {
+        Random rnd = new Random(1);
+        for (int round = 0; round < 40; round++) {
+            List<Place> places = randomPlaces(rnd, 600);
+            PlaceSpatialIndex idx = PlaceSpatialIndex.build(places);
+            for (int q = 0; q < 20; q++) {
+                double[] c = randomPoint(rnd);
+                double radius = new double[] { 0.5, 3, 15, 400, 25_000 }[rnd.nextInt(5)];
+                List<String> cats = rnd.nextBoolean() ? List.of() : List.of(CATEGORIES[rnd.nextInt(CATEGORIES.length - 1)]);
+                int limit = 1 + rnd.nextInt(50);
+                assertEquals(ids(expectedNear(places, c[0], c[1], radius, cats, limit)),
+                        ids(idx.near(c[0], c[1], radius, cats, limit)),
+                        "center=" + Arrays.toString(c) + " r=" + radius + " cats=" + cats);
+            }
+        }
+    }
+
+    @Test
+    void nearFindsNeighboursAcrossTheAntimeridianAndAroundThePole() {
+        Place east = place("00000000-0000-0000-0000-000000000001", 10, 0, "카페", -16.5, 179.999);
+        Place west = place("00000000-0000-0000-0000-000000000002", 9, 0, "카페", -16.5, -179.999);
+        Place north1 = place("00000000-0000-0000-0000-000000000003", 8, 0, "카페", 89.999, 0.0);
+        Place north2 = place("00000000-0000-0000-0000-000000000004", 7, 0, "카페", 89.999, 180.0);
+        PlaceSpatialIndex idx = PlaceSpatialIndex.build(List.of(east, west, north1, north2));
+
+        assertEquals(List.of(east.getPlaceId(), west.getPlaceId()), ids(idx.near(-16.5, 179.9995, 1.0, List.of(), 10)));
+        assertEquals(List.of(north1.getPlaceId(), north2.getPlaceId()), ids(idx.near(89.9995, 90.0, 1.0, List.of(), 10)));
+    }
+
+    @Test
+    void rowsWithoutCoordinatesAreNeverNear() {
+        Place located = place("00000000-0000-0000-0000-000000000001", 1, 0, "카페", 37.5, 127.0);
+        Place missing = place("00000000-0000-0000-0000-000000000002", 99, 0, "카페", null, null);
+        PlaceSpatialIndex idx = PlaceSpatialIndex.build(List.of(located, missing));
+
+        assertEquals(1, idx.size());
+        assertEquals(List.of(located.getPlaceId()), ids(idx.near(37.5, 127.0, 25_000, List.of(), 10)));
+        assertEquals(2, idx.columns().size());
+    }
+
+    @Test
+    void synonymsSelectTheSameCategory() {
+        Place food = place("00000000-0000-0000-0000-000000000001", 1, 0, "음식점", 37.5, 127.0);
+        Place cafe = place("00000000-0000-0000-0000-000000000002", 2, 0, "카페", 37.5, 127.0);
+        PlaceSpatialIndex idx = PlaceSpatialIndex.build(List.of(food, cafe));
+
+        assertEquals(List.of(food.getPlaceId()), ids(idx.near(37.5, 127.0, 1, List.of("식당"), 10)));
+        assertEquals(List.of(cafe.getPlaceId()), ids(idx.near(37.5, 127.0, 1, List.of(" Cafe "), 10)));
+        assertEquals(List.of(), ids(idx.near(37.5, 127.0, 1, List.of("없는카테고리"), 10)));
+    }
+
+    @Test
+    void pageAfterWalksTheKeysetOrderWithoutGapsOrRepeats() {
+        Random rnd = new Random(2);
+        List<Place> places = randomPlaces(rnd, 500);
+        PlaceSpatialIndex idx = PlaceSpatialIndex.build(places);
+
+        List<Place> expected = new ArrayList<>(places);
+        expected.sort(PlaceSpatialIndex.RANK_ORDER);
+        List<String> walked = new ArrayList<>();
+        PlaceCursor after = null;
+        while (true) {
+            List<Place> page = idx.pageAfter(null, null, after, 37);
+            if (page.isEmpty()) break;
+            page.forEach(p -> walked.add(p.getPlaceId()));
+            after = PlaceCursor.of(page.get(page.size() - 1));
+        }
+        assertEquals(ids(expected), walked);
+    }
+
+    @Test
+    void kNearestMatchesFullScanByDistance() {
+        Random rnd = new Random(5);
+        for (int round = 0; round < 40; round++) {
+            List<Place> places = randomPlaces(rnd, 600);
+            PlaceSpatialIndex idx = PlaceSpatialIndex.build(places);
+            for (int q = 0; q < 20; q++) {
+                double[] c = randomPoint(rnd);
+                List<String> cats = rnd.nextBoolean() ? List.of() : List.of(CATEGORIES[rnd.nextInt(CATEGORIES.length - 1)]);
+                int k = 1 + rnd.nextInt(60);
+                // 현 거리와 하버사인은 아주 가까운 두 거리의 순서를 다르게 반올림할 수 있어 거리 값으로 비교한다
+                double[] expected = distances(c, expectedNearest(places, c[0], c[1], cats, k));
+                double[] actual = distances(c, idx.kNearest(c[0], c[1], k, cats));
+                assertArrayEquals(expected, actual, 1e-9, "center=" + Arrays.toString(c) + " k=" + k + " cats=" + cats);
+            }
+        }
+    }
+
+    @Test
+    void kNearestBreaksDistanceTiesByRank() {
+        // 같은 좌표 → 랭킹(점수 DESC, 할인 DESC, place_id) 순
+        Place a = place("00000000-0000-0000-0000-00000000000a", 5, 0, "카페", 37.5, 127.0);
+        Place b = place("00000000-0000-0000-0000-00000000000b", 5, 0, "카페", 37.5, 127.0);
+        Place c = place("00000000-0000-0000-0000-00000000000c", 9, 0, "카페", 37.5, 127.0);
+        Place far = place("00000000-0000-0000-0000-00000000000d", 99, 0, "카페", 37.6, 127.0);
+        PlaceSpatialIndex idx = PlaceSpatialIndex.build(List.of(far, b, a, c));
+
+        assertEquals(ids(List.of(c, a, b, far)), ids(idx.kNearest(37.5, 127.0, 10, List.of())));
+        assertEquals(ids(List.of(c, a)), ids(idx.kNearest(37.5, 127.0, 2, List.of())));
+    }
+
+    @Test
+    void nearestAndKthDistanceRespectTheRadius() {
+        Place near = place("00000000-0000-0000-0000-000000000001", 1, 0, "카페", -16.5, -179.999);
+        Place far = place("00000000-0000-0000-0000-000000000002", 1, 0, "음식점", -16.5, 179.9);
+        PlaceSpatialIndex idx = PlaceSpatialIndex.build(List.of(near, far));
+
+        // 날짜변경선 건너편이 더 가깝다
+        assertEquals(near.getPlaceId(), idx.nearest(-16.5, 179.999, 1.0).orElseThrow().getPlaceId());
+        assertTrue(idx.nearest(-16.5, 179.999, 0.1).isEmpty());
+
+        double d2 = HaversineUtil.distanceKm(-16.5, 179.999, -16.5, 179.9);
+        assertEquals(d2, idx.kthNearestDistanceKm(-16.5, 179.999, 50, List.of(), 2).orElseThrow(), 1e-9);
+        assertTrue(idx.kthNearestDistanceKm(-16.5, 179.999, d2 / 2, List.of(), 2).isEmpty());
+        assertTrue(idx.kthNearestDistanceKm(-16.5, 179.999, 50, List.of("카페"), 2).isEmpty());
+    }
+
+    static List<Place> expectedNearest(List<Place> places, double lat, double lng, List<String> cats, int k) {
+        Set<Short> codes = new HashSet<>();
+        for (String c : cats) codes.add(CategoryDictionary.find(c));
+        return places.stream()
+                .filter(p -> p.getLat() != null && p.getLng() != null)
+                .filter(p -> cats.isEmpty() || codes.contains(p.categoryCode()))
+                .sorted(Comparator.<Place>comparingDouble(p -> HaversineUtil.distanceKm(lat, lng, p.getLat(), p.getLng()))
+                        .thenComparing(PlaceSpatialIndex.RANK_ORDER))
+                .limit(k)
+                .toList();
+    }
+
+    private static double[] distances(double[] c, List<Place> places) {
+        return places.stream().mapToDouble(p -> HaversineUtil.distanceKm(c[0], c[1], p.getLat(), p.getLng())).toArray();
+    }
+
+    @Test
+    void patchMatchesFullRebuild() {
+        Random rnd = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            List<Place> base = randomPlaces(rnd, rnd.nextInt(300));
+            PlaceSpatialIndex idx = PlaceSpatialIndex.build(base);
+
+            // 삭제(없는 id 포함), 점수/좌표가 바뀐 기존 행, 새 행을 섞는다
+            List<String> removed = new ArrayList<>();
+            List<Place> upserts = new ArrayList<>();
+            for (Place p : base) {
+                int pick = rnd.nextInt(10);
+                if (pick == 0) removed.add(p.getPlaceId());
+                else if (pick == 1) {
+                    double[] c = randomPoint(rnd);
+                    upserts.add(place(p.getPlaceId(), rnd.nextInt(4), rnd.nextInt(3) * 10,
+                            CATEGORIES[rnd.nextInt(CATEGORIES.length)], c[0], c[1]));
+                }
+            }
+            removed.add(new UUID(rnd.nextLong(), rnd.nextLong()).toString());
+            upserts.addAll(randomPlaces(rnd, rnd.nextInt(30)));
+
+            Map<String, Place> expected = new LinkedHashMap<>();
+            for (Place p : base) expected.put(p.getPlaceId(), p);
+            removed.forEach(expected::remove);
+            for (Place p : upserts) expected.put(p.getPlaceId(), p);
+
+            PlaceSpatialIndex patched = idx.patch(removed, upserts);
+            PlaceSpatialIndex rebuilt = PlaceSpatialIndex.build(expected.values());
+            assertSameRows(rebuilt, patched);
+            assertSameRows(PlaceSpatialIndex.build(base), idx);   // 원본은 그대로
+            assertEquals(rebuilt.size(), patched.size());
+
+            double[] c = randomPoint(rnd);
+            assertEquals(ids(rebuilt.near(c[0], c[1], 25_000, List.of("카페"), 20)),
+                    ids(patched.near(c[0], c[1], 25_000, List.of("카페"), 20)));
+        }
+    }
+
+    private static void assertSameRows(PlaceSpatialIndex expected, PlaceSpatialIndex actual) {
+        var e = expected.columns();
+        var a = actual.columns();
+        assertEquals(e.size(), a.size());
+        for (int r = 0; r < e.size(); r++) {
+            assertTrue(a.sameAs(r, e.toPlace(r)), "row " + r);
+            assertEquals(e.categoryId(r), a.categoryId(r), "row " + r);
+        }
+    }
+
+    static List<Place> expectedNear(List<Place> places, double lat, double lng, double radiusKm, List<String> cats, int limit) {
+        Set<Short> codes = new HashSet<>();
+        for (String c : cats) codes.add(CategoryDictionary.find(c));
+        return places.stream()
+                .filter(p -> p.getLat() != null && p.getLng() != null)
+                .filter(p -> cats.isEmpty() || codes.contains(p.categoryCode()))
+                .filter(p -> HaversineUtil.distanceKm(lat, lng, p.getLat(), p.getLng()) <= radiusKm)
+                .sorted(PlaceSpatialIndex.RANK_ORDER)
+                .limit(limit)
+                .toList();
+    }
+
+    static List<Place> randomPlaces(Random rnd, int n) {
+        List<Place> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            double[] c = randomPoint(rnd);
+            boolean located = rnd.nextInt(20) > 0;
+            out.add(place(new UUID(rnd.nextLong(), rnd.nextLong()).toString(), rnd.nextInt(4), rnd.nextInt(3) * 10,
+                    CATEGORIES[rnd.nextInt(CATEGORIES.length)], located ? c[0] : null, located ? c[1] : null));
+        }
+        return out;
+    }
+
+    /** 한국 주변, 극 근처, 날짜변경선 근처, 지구 아무 곳 */
+    static double[] randomPoint(Random rnd) {
+        return switch (rnd.nextInt(4)) {
+            case 0 -> new double[] { 37.5 + (rnd.nextDouble() - 0.5) * 0.4, 127.0 + (rnd.nextDouble() - 0.5) * 0.4 };
+            case 1 -> new double[] { (rnd.nextBoolean() ? 1 : -1) * (89.9 + rnd.nextDouble() * 0.1), rnd.nextDouble() * 360 - 180 };
+            case 2 -> new double[] { rnd.nextDouble() * 10 - 20, (rnd.nextBoolean() ? 1 : -1) * (179.9 + rnd.nextDouble() * 0.1) };
+            default -> new double[] { rnd.nextDouble() * 180 - 90, rnd.nextDouble() * 360 - 180 };
+        };
+    }
+
+    static Place place(String id, int totalScore, int discount, String category, Double lat, Double lng) {
+        Place p = new Place();
+        p.setPlaceId(id);
+        p.setName("장소 " + id.substring(id.length() - 4));
+        p.setCategory(category);
+        p.setTotalScore(totalScore);
+        p.setDiscountPercent(discount);
+        p.setLat(lat);
+        p.setLng(lng);
+        return p;
+    }
+
+    static List<String> ids(List<Place> places) {
+        return places.stream().map(Place::getPlaceId).toList();
+    }
+}
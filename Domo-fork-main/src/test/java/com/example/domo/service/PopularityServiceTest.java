@@ -0,0 +1,129 @@
+package com.example.domo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GEO_DENSITY 이웃 수: 격자 경로(countAllNeighbors)가 전체 쌍 비교와 같은 값을 내는지
+ * 무작위 좌표로 확인한다. 극/날짜변경선(전체 쌍으로 넘어가는 경로), 같은 좌표, 반경 경계의 점을 섞는다.
+ */
+class PopularityServiceTest {
+
+    private static final double RADIUS_M = 300.0;
+    private static final double EARTH_RADIUS_M = 6371000.0;
+
+    // threshold 를 낮춰 병렬 경로도 탄다
+    private final ScoringPool pool = new ScoringPool(64, 4);
+    private final PopularityService service = new PopularityService(pool);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void gridMatchesAllPairsAroundKorea() {
+        Random rnd = new Random(16);
+        for (int round = 0; round < 30; round++) {
+            assertSameAsAllPairs(clustered(rnd, 400, 37.5, 127.0));
+        }
+    }
+
+    @Test
+    void gridMatchesAllPairsNearThePoles() {
+        Random rnd = new Random(17);
+        for (int round = 0; round < 20; round++) {
+            assertSameAsAllPairs(clustered(rnd, 200, 89.995, rnd.nextDouble() * 360 - 180));
+            assertSameAsAllPairs(clustered(rnd, 200, -89.995, rnd.nextDouble() * 360 - 180));
+            assertSameAsAllPairs(clustered(rnd, 200, 84.0, 30.0));
+        }
+    }
+
+    @Test
+    void gridMatchesAllPairsAcrossTheAntimeridian() {
+        Random rnd = new Random(18);
+        for (int round = 0; round < 20; round++) {
+            assertSameAsAllPairs(clustered(rnd, 200, -16.5, 179.9995));
+            assertSameAsAllPairs(clustered(rnd, 200, 52.0, -179.9995));
+        }
+    }
+
+    @Test
+    void duplicatesAndBoundaryPointsCountTheSame() {
+        // 같은 좌표 여러 개 + 위도 방향으로 정확히 반경만큼 떨어진 점들
+        double step = Math.toDegrees(RADIUS_M / EARTH_RADIUS_M);
+        double[][] pts = new double[40][];
+        for (int i = 0; i < 20; i++) pts[i] = new double[] { 37.0, 127.0 };
+        for (int i = 20; i < 40; i++) pts[i] = new double[] { 37.0 + (i - 20) * step, 127.0 };
+        assertSameAsAllPairs(pts);
+    }
+
+    @Test
+    void rowsWithoutCoordinatesHaveNoNeighbors() {
+        double[][] pts = {
+                { 37.0, 127.0 }, { 37.0, 127.0 }, { Double.NaN, Double.NaN }, { 0.0, 0.0 }, { 91.0, 127.0 }
+        };
+        int[] counts = count(pts);
+        assertArrayEquals(new int[] { 1, 1, 0, 0, 0 }, counts);
+    }
+
+    private void assertSameAsAllPairs(double[][] pts) {
+        assertArrayEquals(allPairs(pts), count(pts));
+    }
+
+    private int[] count(double[][] pts) {
+        int n = pts.length;
+        double[] lat = new double[n], lng = new double[n];
+        for (int i = 0; i < n; i++) { lat[i] = pts[i][0]; lng[i] = pts[i][1]; }
+        return service.countAllNeighbors(n, lat, lng, RADIUS_M);
+    }
+
+    /** 기준: 모든 쌍을 하버사인으로 (좌표 판정은 PopularityService 와 같게) */
+    private static int[] allPairs(double[][] pts) {
+        int n = pts.length;
+        int[] out = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (!valid(pts[i])) continue;
+            for (int j = 0; j < n; j++) {
+                if (j != i && valid(pts[j]) && haversineMeters(pts[i], pts[j]) <= RADIUS_M) out[i]++;
+            }
+        }
+        return out;
+    }
+
+    /** 중심 주변 몇 km 안에 몰린 점들 (반경 300m 안에 이웃이 생기도록), 일부는 같은 좌표를 되풀이 */
+    private static double[][] clustered(Random rnd, int n, double lat, double lng) {
+        double[][] pts = new double[n][];
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && rnd.nextInt(10) == 0) {
+                pts[i] = pts[rnd.nextInt(i)].clone();
+                continue;
+            }
+            double la = Math.max(-90, Math.min(90, lat + (rnd.nextDouble() - 0.5) * 0.02));
+            double lo = lng + (rnd.nextDouble() - 0.5) * 0.02;
+            if (lo > 180) lo -= 360;
+            if (lo < -180) lo += 360;
+            pts[i] = new double[] { la, lo };
+        }
+        return pts;
+    }
+
+    private static boolean valid(double[] p) {
+        if (Double.isNaN(p[0]) || Double.isNaN(p[1])) return false;
+        if (p[0] == 0.0 && p[1] == 0.0) return false;
+        return Math.abs(p[0]) <= 90 && Math.abs(p[1]) <= 180;
+    }
+
+    private static double haversineMeters(double[] a, double[] b) {
+        double dLat = Math.toRadians(b[0] - a[0]);
+        double dLon = Math.toRadians(b[1] - a[1]);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(a[0])) * Math.cos(Math.toRadians(b[0])) *
+                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_M * 2 * Math.atan2(Math.sqrt(h), Math.sqrt(1 - h));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.domo.service;
+
+import com.example.domo.model.ScoreColumns;
+import com.example.domo.util.HaversineUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * VectorScoreKernel 이 스칼라 경로(ScoreServiceImpl.SCALAR)와 비트 단위로 같은 점수를 내는지 본다.
+ * 거리는 극/날짜변경선을 포함한 무작위 좌표에서 HaversineUtil 로 만들고, 반올림 경계(x.5)와 0/15km 경계를 섞는다.
+ */
+class VectorScoreKernelTest {
+
+    private ScoreKernel vector;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "jdk.incubator.vector 모듈 없이 실행됨");
+        vector = new VectorScoreKernel();
+    }
+
+    @Test
+    void matchesScalarOnRandomCoordinates() {
+        Random rnd = new Random(21);
+        for (int round = 0; round < 200; round++) {
+            int n = rnd.nextInt(300);
+            ScoreColumns in = new ScoreColumns(n);
+            double uLat = randomLat(rnd), uLng = randomLng(rnd);
+            for (int i = 0; i < n; i++) {
+                // 사용자 근처(15km 안팎)와 아무 곳이나 섞는다
+                double lat = rnd.nextBoolean() ? clampLat(uLat + (rnd.nextDouble() - 0.5) * 0.3) : randomLat(rnd);
+                double lng = rnd.nextBoolean() ? wrapLng(uLng + (rnd.nextDouble() - 0.5) * 0.3) : randomLng(rnd);
+                in.distanceKm[i] = HaversineUtil.distanceKm(uLat, uLng, lat, lng);
+                in.discount[i] = rnd.nextInt(130);
+                in.popularity[i] = rnd.nextInt(140) - 20;
+            }
+            assertSameScores(in, 0, n);
+        }
+    }
+
+    @Test
+    void matchesScalarOnRoundingAndRangeBoundaries() {
+        // (15 - km) / 15 * 40 = k + 0.5 가 되는 거리, 0/15km 경계, 그 바로 안팎
+        double[] km = new double[64];
+        int n = 0;
+        for (int k = 0; k < 40; k++) km[n++] = 15.0 - (k + 0.5) * 15.0 / 40.0;
+        km[n++] = 0.0;
+        km[n++] = Double.MIN_VALUE;
+        km[n++] = 15.0;
+        km[n++] = Math.nextDown(15.0);
+        km[n++] = Math.nextUp(15.0);
+        km[n++] = 20_015.0;     // 지구 반대편
+        ScoreColumns in = new ScoreColumns(n);
+        for (int i = 0; i < n; i++) {
+            in.distanceKm[i] = km[i];
+            in.discount[i] = (i * 5) % 105;     // 2.5 단위로 x.5 가 나오는 할인율 포함
+            in.popularity[i] = (i * 7) % 110;
+        }
+        assertSameScores(in, 0, n);
+    }
+
+    @Test
+    void scoresOnlyTheRequestedRange() {
+        ScoreColumns in = new ScoreColumns(37);
+        for (int i = 0; i < in.capacity(); i++) {
+            in.distanceKm[i] = i * 0.4;
+            in.discount[i] = i * 3;
+            in.popularity[i] = i * 2;
+        }
+        // 레인 수로 나눠떨어지지 않는 시작/끝 (나머지는 스칼라 경로)
+        assertSameScores(in, 3, 34);
+    }
+
+    private void assertSameScores(ScoreColumns in, int from, int to) {
+        ScoreColumns expected = copy(in), actual = copy(in);
+        ScoreServiceImpl.SCALAR.score(expected, from, to);
+        vector.score(actual, from, to);
+        assertArrayEquals(expected.distanceScore, actual.distanceScore, "distanceScore");
+        assertArrayEquals(expected.benefitScore, actual.benefitScore, "benefitScore");
+        assertArrayEquals(expected.popularScore, actual.popularScore, "popularScore");
+        assertArrayEquals(expected.totalScore, actual.totalScore, "totalScore");
+    }
+
+    private static ScoreColumns copy(ScoreColumns s) {
+        ScoreColumns c = new ScoreColumns(s.capacity());
+        System.arraycopy(s.distanceKm, 0, c.distanceKm, 0, s.capacity());
+        System.arraycopy(s.discount, 0, c.discount, 0, s.capacity());
+        System.arraycopy(s.popularity, 0, c.popularity, 0, s.capacity());
+        return c;
+    }
+
+    /** 극 근처가 자주 나오도록 일부는 ±89.9° 이상에서 뽑는다 */
+    private static double randomLat(Random rnd) {
+        if (rnd.nextInt(4) == 0) return (rnd.nextBoolean() ? 1 : -1) * (89.9 + rnd.nextDouble() * 0.1);
+        return rnd.nextDouble() * 180 - 90;
+    }
+
+    /** 날짜변경선 근처가 자주 나오도록 일부는 ±179.9° 이상에서 뽑는다 */
+    private static double randomLng(Random rnd) {
+        if (rnd.nextInt(4) == 0) return (rnd.nextBoolean() ? 1 : -1) * (179.9 + rnd.nextDouble() * 0.1);
+        return rnd.nextDouble() * 360 - 180;
+    }
+
+    private static double clampLat(double lat) {
+        return Math.max(-90, Math.min(90, lat));
+    }
+
+    private static double wrapLng(double lng) {
+        if (lng > 180) return lng - 360;
+        if (lng < -180) return lng + 360;
+        return lng;
+    }
+}
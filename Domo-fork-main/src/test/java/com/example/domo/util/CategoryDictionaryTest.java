@@ -0,0 +1,81 @@
+package com.example.domo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CategoryDictionary 의 동의어/대소문자/공백 처리, intern 과 find 의 차이, DB 필터용 표기 펼치기를 본다.
+ * 사전은 프로세스 전역이라 새로 붙는 카테고리는 테스트마다 겹치지 않는 이름을 쓴다.
+ */
+class CategoryDictionaryTest {
+
+    @Test
+    void synonymsCaseAndWhitespaceShareOneCode() {
+        assertEquals(CategoryDictionary.FOOD, CategoryDictionary.find("음식점"));
+        assertEquals(CategoryDictionary.FOOD, CategoryDictionary.find(" 식당 "));
+        assertEquals(CategoryDictionary.FOOD, CategoryDictionary.find("Restaurant"));
+        assertEquals(CategoryDictionary.CAFE, CategoryDictionary.find("CAFE"));
+        assertEquals(CategoryDictionary.ACTIVITY, CategoryDictionary.intern("액티비티"));
+        assertEquals("음식점", CategoryDictionary.name(CategoryDictionary.FOOD));
+        assertNull(CategoryDictionary.name(CategoryDictionary.NONE));
+    }
+
+    @Test
+    void nullAndBlankAreNone() {
+        assertEquals(CategoryDictionary.NONE, CategoryDictionary.find(null));
+        assertEquals(CategoryDictionary.NONE, CategoryDictionary.find("  "));
+        assertEquals(CategoryDictionary.NONE, CategoryDictionary.intern(""));
+    }
+
+    @Test
+    void findDoesNotGrowTheDictionaryButInternDoes() {
+        String name = "  테스트공방-" + UUID.randomUUID() + " ";
+        int before = CategoryDictionary.size();
+
+        assertEquals(CategoryDictionary.UNKNOWN, CategoryDictionary.find(name));
+        assertEquals(before, CategoryDictionary.size());
+
+        short code = CategoryDictionary.intern(name);
+        assertTrue(code > CategoryDictionary.ACTIVITY);
+        assertEquals(before + 1, CategoryDictionary.size());
+        assertEquals(name.trim(), CategoryDictionary.name(code));
+        assertEquals(code, CategoryDictionary.find(name.toUpperCase(Locale.ROOT).trim()));
+        assertEquals(code, CategoryDictionary.intern(name.trim()));
+        assertEquals(before + 1, CategoryDictionary.size());
+    }
+
+    @Test
+    void concurrentInternsAgreeOnOneCode() throws Exception {
+        String name = "동시-" + UUID.randomUUID();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Short>> codes = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String spelling = (i % 2 == 0) ? name : " " + name.toUpperCase(Locale.ROOT);
+                codes.add(pool.submit(() -> {
+                    start.await();
+                    return CategoryDictionary.intern(spelling);
+                }));
+            }
+            start.countDown();
+            Set<Short> distinct = new HashSet<>();
+            for (Future<Short> f : codes) distinct.add(f.get(10, TimeUnit.SECONDS));
+            assertEquals(Set.of(CategoryDictionary.find(name)), distinct);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void spellingsExpandKnownCategoriesAndKeepUnknownOnes() {
+        assertEquals(List.of("음식점", "음식", "식당", "restaurant"), CategoryDictionary.spellings(List.of(" 식당")));
+        List<String> mixed = new ArrayList<>(Arrays.asList("CAFE", "카페", null, " ", "보드게임방-없는값"));
+        assertEquals(List.of("카페", "cafe", "보드게임방-없는값"), CategoryDictionary.spellings(mixed));
+        assertEquals(List.of(), CategoryDictionary.spellings(List.of()));
+    }
+}
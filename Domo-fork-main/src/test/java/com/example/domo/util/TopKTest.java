@@ -0,0 +1,42 @@
+package com.example.domo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TopK 가 안정 정렬 후 앞 k 개를 자른 것과 같은지 (동률은 입력 순서) 본다.
+ */
+class TopKTest {
+
+    @Test
+    void positionsMatchStableSortPrefix() {
+        Random rnd = new Random(19);
+        for (int round = 0; round < 500; round++) {
+            int n = rnd.nextInt(80);
+            int[] v = rnd.ints(n, 0, 1 + rnd.nextInt(10)).toArray();   // 값 범위가 좁아 동률이 많다
+            int k = rnd.nextInt(n + 3) - 1;                               // 음수, 0, n 초과 포함
+            IntSort.IntComparator desc = (a, b) -> Integer.compare(v[b], v[a]);
+
+            int[] expected = IntStream.range(0, n).boxed()
+                    .sorted((a, b) -> desc.compare(a, b))               // Stream.sorted 는 안정 정렬
+                    .limit(Math.max(0, k)).mapToInt(Integer::intValue).toArray();
+            assertArrayEquals(expected, TopK.of(n, desc, k), "v=" + Arrays.toString(v) + " k=" + k);
+        }
+    }
+
+    @Test
+    void listOverloadKeepsInputOrderOnTies() {
+        List<String> words = List.of("bb", "a", "cc", "d", "ee", "f", "gg");
+        List<String> copy = new ArrayList<>(words);
+
+        assertEquals(List.of("bb", "cc", "ee"), TopK.of(words, Comparator.comparingInt(s -> -s.length()), 3));
+        assertEquals(List.of("a", "d", "f", "bb"), TopK.of(words, Comparator.comparingInt(String::length), 4));
+        assertEquals(words, TopK.of(words, (a, b) -> 0, 100));
+        assertEquals(List.of(), TopK.of(List.<String>of(), Comparator.naturalOrder(), 5));
+        assertEquals(copy, words);
+    }
+}